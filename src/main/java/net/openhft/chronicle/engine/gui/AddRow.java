@@ -41,7 +41,7 @@ public class AddRow {
         @NotNull FormLayout form = new FormLayout();
         form.setMargin(true);
         @NotNull ArrayList<AbstractField> fields = new ArrayList<>();
-        final List<Column> columns1 = columnView.columns();
+        final List<Column> columns1 = Schema.of(columnView).columns;
         for (@NotNull Column column : columns1) {
 
             AbstractField field;
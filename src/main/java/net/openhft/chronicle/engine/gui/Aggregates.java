@@ -0,0 +1,217 @@
+package net.openhft.chronicle.engine.gui;
+
+import net.openhft.chronicle.engine.api.column.Column;
+import net.openhft.chronicle.engine.api.column.Row;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The count, sum, min, max and average of each column of the rows added, in total and optionally
+ * for each value of one column, gathered in a single pass over the rows.
+ */
+final class Aggregates {
+
+    /**
+     * the most groups held, the rows of any further groups count towards the total only
+     */
+    static final int MAX_GROUPS = Integer.getInteger("chronicle.gui.aggregate.maxGroups", 1_000);
+
+    /**
+     * the most rows read, as every row is streamed from the engine, the stats are of the first
+     * rows only if more match
+     */
+    static final long MAX_ROWS = Long.getLong("chronicle.gui.aggregate.maxRows", 1_000_000);
+
+    @NotNull
+    private final List<Column> columns;
+    private final int groupBy;
+    @NotNull
+    private final Stats total;
+    @NotNull
+    private final Map<Object, Stats> groups = new LinkedHashMap<>();
+    private boolean truncated;
+    private boolean partial;
+
+    /**
+     * @param groupBy the index of the column to group by, or -1 for the total only
+     */
+    Aggregates(@NotNull List<Column> columns, int groupBy) {
+        this.columns = columns;
+        this.groupBy = groupBy;
+        this.total = new Stats(columns.size());
+    }
+
+    void add(@NotNull Row row) {
+        total.add(row);
+        if (groupBy < 0)
+            return;
+
+        final Object key = row.get(groupBy);
+        Stats group = groups.get(key);
+        if (group == null) {
+            if (groups.size() >= MAX_GROUPS) {
+                truncated = true;
+                return;
+            }
+            groups.put(key, group = new Stats(columns.size()));
+        }
+        group.add(row);
+    }
+
+    @NotNull
+    List<Column> columns() {
+        return columns;
+    }
+
+    @NotNull
+    Stats total() {
+        return total;
+    }
+
+    /**
+     * @return the stats of each value of the group by column, in the order first seen
+     */
+    @NotNull
+    Map<Object, Stats> groups() {
+        return Collections.unmodifiableMap(groups);
+    }
+
+    /**
+     * notes that more rows matched than were added
+     */
+    void partial() {
+        partial = true;
+    }
+
+    /**
+     * @return {@code true} if more rows matched than were added, as there were more than {@link
+     * #MAX_ROWS}
+     */
+    boolean isPartial() {
+        return partial;
+    }
+
+    /**
+     * @return {@code true} if there were more than {@link #MAX_GROUPS} groups, and so some are
+     * missing from {@link #groups()}
+     */
+    boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * the stats of each column of a set of rows, null cells are not counted
+     */
+    static final class Stats {
+        private long rows;
+        @NotNull
+        private final long[] counts;
+        @NotNull
+        private final long[] longSums;
+        @NotNull
+        private final double[] doubleSums;
+        /**
+         * set once a column holds a value which is not a whole number, so its sum is held as a
+         * double
+         */
+        @NotNull
+        private final boolean[] fractional;
+        /**
+         * set once a column holds a value which is not a number, so it has no sum
+         */
+        @NotNull
+        private final boolean[] nonNumeric;
+        @NotNull
+        private final Comparable[] mins;
+        @NotNull
+        private final Comparable[] maxes;
+
+        private Stats(int columns) {
+            counts = new long[columns];
+            longSums = new long[columns];
+            doubleSums = new double[columns];
+            fractional = new boolean[columns];
+            nonNumeric = new boolean[columns];
+            mins = new Comparable[columns];
+            maxes = new Comparable[columns];
+        }
+
+        @SuppressWarnings("unchecked")
+        private void add(@NotNull Row row) {
+            rows++;
+            for (int i = 0; i < counts.length; i++) {
+                final Object value = row.get(i);
+                if (value == null)
+                    continue;
+                counts[i]++;
+
+                if (value instanceof Long || value instanceof Integer || value instanceof Short
+                        || value instanceof Byte) {
+                    longSums[i] += ((Number) value).longValue();
+                    doubleSums[i] += ((Number) value).doubleValue();
+                } else if (value instanceof Number) {
+                    fractional[i] = true;
+                    doubleSums[i] += ((Number) value).doubleValue();
+                } else {
+                    nonNumeric[i] = true;
+                }
+
+                if (!(value instanceof Comparable))
+                    continue;
+                try {
+                    if (mins[i] == null || mins[i].compareTo(value) > 0)
+                        mins[i] = (Comparable) value;
+                    if (maxes[i] == null || maxes[i].compareTo(value) < 0)
+                        maxes[i] = (Comparable) value;
+                } catch (ClassCastException e) {
+                    // the column holds more than one type, so has no order
+                    mins[i] = maxes[i] = null;
+                }
+            }
+        }
+
+        long rows() {
+            return rows;
+        }
+
+        /**
+         * @return the number of cells of the column which are not null
+         */
+        long count(int column) {
+            return counts[column];
+        }
+
+        /**
+         * @return the sum of a numeric column, as a Long if it only holds whole numbers, or {@code
+         * null} if the column is not numeric
+         */
+        @Nullable
+        Number sum(int column) {
+            if (nonNumeric[column] || counts[column] == 0)
+                return null;
+            return fractional[column] ? (Number) doubleSums[column] : (Number) longSums[column];
+        }
+
+        @Nullable
+        Double avg(int column) {
+            if (nonNumeric[column] || counts[column] == 0)
+                return null;
+            return doubleSums[column] / counts[column];
+        }
+
+        @Nullable
+        Object min(int column) {
+            return mins[column];
+        }
+
+        @Nullable
+        Object max(int column) {
+            return maxes[column];
+        }
+    }
+}
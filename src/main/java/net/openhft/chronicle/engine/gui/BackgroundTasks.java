@@ -0,0 +1,156 @@
+package net.openhft.chronicle.engine.gui;
+
+import net.openhft.chronicle.engine.api.column.ColumnViewInternal;
+import net.openhft.chronicle.threads.NamedThreadFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the work of the GUI which calls the engine in the background, such as counts, prefetches,
+ * writes, deletes, imports and exports. Every view shares one pool of {@link #THREADS} threads, so
+ * that many open views can not start a thread each, and no view runs more than {@link #PER_VIEW}
+ * tasks at once, the rest waiting their turn, so that one busy view does not hold up the others.
+ * <p>
+ * A task which waits on another it submitted should do so with {@link #await(Future)}, which runs
+ * the other itself if it has not started, so that tasks waiting on each other can not take every
+ * thread and stop.
+ */
+final class BackgroundTasks {
+
+    /**
+     * the most threads calling the engine in the background, for every view together
+     */
+    static final int THREADS = Integer.getInteger("chronicle.gui.background.threads", 16);
+
+    /**
+     * the most tasks of one view run at once
+     */
+    static final int PER_VIEW = Integer.getInteger("chronicle.gui.background.perView", 4);
+
+    @NotNull
+    private static final ThreadPoolExecutor POOL = new ThreadPoolExecutor(THREADS, THREADS,
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new NamedThreadFactory("background", true));
+
+    static {
+        POOL.allowCoreThreadTimeOut(true);
+    }
+
+    @NotNull
+    private static final Map<ColumnViewInternal, BackgroundTasks> TASKS = new WeakHashMap<>();
+
+    private final int maxRunning;
+
+    /**
+     * the tasks waiting for one of this view's to finish, guarded by this
+     */
+    @NotNull
+    private final Deque<Task<?>> waiting = new ArrayDeque<>();
+    private int running;
+
+    BackgroundTasks(int maxRunning) {
+        this.maxRunning = Math.max(1, maxRunning);
+    }
+
+    /**
+     * @return the tasks of {@code columnView}, shared by every component showing it
+     */
+    @NotNull
+    static BackgroundTasks of(@NotNull ColumnViewInternal columnView) {
+        synchronized (TASKS) {
+            BackgroundTasks tasks = TASKS.get(columnView);
+            if (tasks == null)
+                TASKS.put(columnView, tasks = new BackgroundTasks(PER_VIEW));
+            return tasks;
+        }
+    }
+
+    @NotNull
+    <T> Future<T> submit(@NotNull Callable<T> callable) {
+        @NotNull final Task<T> task = new Task<>(callable);
+        synchronized (this) {
+            if (running >= maxRunning) {
+                waiting.add(task);
+                return task;
+            }
+            running++;
+        }
+        POOL.execute(task);
+        return task;
+    }
+
+    @NotNull
+    Future<?> submit(@NotNull Runnable runnable) {
+        return submit(Executors.callable(runnable));
+    }
+
+    /**
+     * waits for {@code future}, running it on this thread if it is a task which has not started
+     */
+    static <T> T await(@NotNull Future<T> future) throws InterruptedException, ExecutionException {
+        runIfWaiting(future);
+        return future.get();
+    }
+
+    /**
+     * runs {@code future} on this thread if it is a task which has not started
+     */
+    static void runIfWaiting(@NotNull Future<?> future) {
+        if (future instanceof Task)
+            ((Task<?>) future).runIfWaiting();
+    }
+
+    /**
+     * starts the next task waiting, in the place of one which has finished
+     */
+    private void finished() {
+        final Task<?> next;
+        synchronized (this) {
+            next = waiting.poll();
+            if (next == null) {
+                running--;
+                return;
+            }
+        }
+        POOL.execute(next);
+    }
+
+    private final class Task<T> extends FutureTask<T> {
+
+        Task(@NotNull Callable<T> callable) {
+            super(callable);
+        }
+
+        @Override
+        public void run() {
+            try {
+                super.run();
+            } finally {
+                finished();
+            }
+        }
+
+        void runIfWaiting() {
+            final boolean queued;
+            synchronized (BackgroundTasks.this) {
+                queued = waiting.remove(this);
+            }
+            if (queued)
+                // it has no place of its own to hand on
+                super.run();
+            else if (POOL.remove(this))
+                run();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package net.openhft.chronicle.engine.gui;
+
+import net.openhft.chronicle.engine.api.column.ColumnViewInternal;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends a batch of row changes to a column view with a number of writes in flight at once, rather
+ * than waiting on each round trip in turn.
+ * <p>
+ * The changes in a batch must be to different rows, as they may be applied in any order. The
+ * engine has no transactions, so if a write fails the rest of the batch is still applied.
+ * <p>
+ * The writes are run as {@link BackgroundTasks} of the view, so no more of them are sent at once
+ * than the view may run tasks, however large {@code maxInFlight} is.
+ */
+class BatchWriter {
+
+    /**
+     * the default number of writes sent to the engine before waiting for the first to complete
+     */
+    static final int MAX_IN_FLIGHT = Integer.getInteger("chronicle.gui.write.maxInFlight", 16);
+
+    @NotNull
+    private final ColumnViewInternal columnView;
+    private final int maxInFlight;
+    @NotNull
+    private final BackgroundTasks tasks;
+
+    BatchWriter(@NotNull ColumnViewInternal columnView) {
+        this(columnView, MAX_IN_FLIGHT);
+    }
+
+    BatchWriter(@NotNull ColumnViewInternal columnView, int maxInFlight) {
+        this.columnView = columnView;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.tasks = BackgroundTasks.of(columnView);
+    }
+
+    /**
+     * @param changes the changes to write, each to a different row
+     * @return the number of rows changed
+     * @throws SQLException if any of the writes failed or changed no row, once every write has
+     *                      completed
+     */
+    int write(@NotNull Collection<Change> changes) throws SQLException {
+        return writeAll(changes).checked();
+    }
+
+    /**
+     * as {@link #write(Collection)}, but reports the writes which failed or changed no row rather
+     * than throwing
+     *
+     * @throws SQLException only if interrupted
+     */
+    @NotNull
+    Outcome writeAll(@NotNull Collection<Change> changes) throws SQLException {
+        if (changes.isEmpty())
+            return new Outcome(0, 0, 0, 0, null);
+
+        if (changes.size() == 1 || maxInFlight == 1)
+            return writeInTurn(changes);
+
+        @NotNull final AtomicInteger changed = new AtomicInteger();
+        @NotNull final AtomicInteger unchanged = new AtomicInteger();
+        @NotNull final Deque<Future<?>> inFlight = new ArrayDeque<>(maxInFlight);
+        int sent = 0;
+        int failed = 0;
+        Throwable failure = null;
+
+        try {
+            for (@NotNull Change change : changes) {
+                if (inFlight.size() >= maxInFlight) {
+                    @Nullable final Throwable t = completed(inFlight.poll());
+                    if (t != null) {
+                        failed++;
+                        if (failure == null)
+                            failure = t;
+                    }
+                }
+                inFlight.add(tasks.submit(() -> {
+                    if (columnView.changedRow(change.newRow, change.oldRow) > 0)
+                        changed.incrementAndGet();
+                    else
+                        unchanged.incrementAndGet();
+                }));
+                sent++;
+            }
+
+            while (!inFlight.isEmpty()) {
+                @Nullable final Throwable t = completed(inFlight.poll());
+                if (t != null) {
+                    failed++;
+                    if (failure == null)
+                        failure = t;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("interrupted after sending " + sent + " of " + changes.size()
+                    + " changes", e);
+        }
+
+        return new Outcome(changes.size(), changed.get(), unchanged.get(), failed, failure);
+    }
+
+    /**
+     * waits for a write, running it on this thread if it has not started
+     *
+     * @return the reason it failed, or {@code null}
+     */
+    @Nullable
+    private static Throwable completed(@NotNull Future<?> write) throws InterruptedException {
+        try {
+            BackgroundTasks.await(write);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+    }
+
+    @NotNull
+    private Outcome writeInTurn(@NotNull Collection<Change> changes) {
+        int changed = 0;
+        int unchanged = 0;
+        int failed = 0;
+        Throwable failure = null;
+
+        for (@NotNull Change change : changes) {
+            try {
+                if (columnView.changedRow(change.newRow, change.oldRow) > 0)
+                    changed++;
+                else
+                    unchanged++;
+            } catch (RuntimeException e) {
+                failed++;
+                if (failure == null)
+                    failure = e;
+            }
+        }
+
+        return new Outcome(changes.size(), changed, unchanged, failed, failure);
+    }
+
+    /**
+     * the number of writes in a batch which changed a row, changed none, or failed
+     */
+    static final class Outcome {
+        final int size;
+        final int changed;
+        final int unchanged;
+        final int failed;
+        @Nullable
+        final Throwable failure;
+
+        Outcome(int size, int changed, int unchanged, int failed, @Nullable Throwable failure) {
+            this.size = size;
+            this.changed = changed;
+            this.unchanged = unchanged;
+            this.failed = failed;
+            this.failure = failure;
+        }
+
+        /**
+         * @return the number of rows changed
+         * @throws SQLException if any of the writes failed or changed no row
+         */
+        int checked() throws SQLException {
+            if (failed > 0)
+                throw new SQLException(failed + " of " + size + " changes failed", failure);
+            if (unchanged > 0)
+                throw new SQLException(unchanged + " of " + size + " changes did not change a row, " +
+                        "they may have been changed by someone else");
+            return changed;
+        }
+    }
+
+    /**
+     * a change to one row, an empty {@code newRow} removes the row and an empty {@code oldRow}
+     * adds it
+     */
+    static final class Change {
+        @NotNull
+        final Map<String, Object> newRow;
+        @NotNull
+        final Map<String, Object> oldRow;
+
+        Change(@NotNull Map<String, Object> newRow, @NotNull Map<String, Object> oldRow) {
+            this.newRow = newRow;
+            this.oldRow = oldRow;
+        }
+    }
+}
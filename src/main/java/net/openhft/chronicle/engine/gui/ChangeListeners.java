@@ -0,0 +1,59 @@
+package net.openhft.chronicle.engine.gui;
+
+import com.vaadin.ui.Component;
+import net.openhft.chronicle.engine.api.column.ColumnViewInternal;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * The listeners to the changes of a column view. A listener can not be removed from the engine,
+ * so it is given one for each column view, which calls those of the components showing the view
+ * while they are attached, rather than one more each time the view is opened.
+ */
+final class ChangeListeners {
+
+    @NotNull
+    private static final Map<ColumnViewInternal, ChangeListeners> LISTENERS = new WeakHashMap<>();
+
+    @NotNull
+    private final Set<Runnable> listeners = new CopyOnWriteArraySet<>();
+
+    private ChangeListeners() {
+    }
+
+    /**
+     * calls {@code listener}, on the engine's thread, each time {@code columnView} changes while
+     * {@code component} is attached
+     */
+    static void addWhileAttached(@NotNull ColumnViewInternal columnView,
+                                 @NotNull Component component,
+                                 @NotNull Runnable listener) {
+        @NotNull final ChangeListeners changeListeners = of(columnView);
+        component.addAttachListener(e -> changeListeners.listeners.add(listener));
+        component.addDetachListener(e -> changeListeners.listeners.remove(listener));
+        if (component.isAttached())
+            changeListeners.listeners.add(listener);
+    }
+
+    @NotNull
+    private static ChangeListeners of(@NotNull ColumnViewInternal columnView) {
+        synchronized (LISTENERS) {
+            ChangeListeners changeListeners = LISTENERS.get(columnView);
+            if (changeListeners == null) {
+                LISTENERS.put(columnView, changeListeners = new ChangeListeners());
+                columnView.registerChangeListener(changeListeners::onChange);
+            }
+            return changeListeners;
+        }
+    }
+
+    private void onChange() {
+        for (@NotNull Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+}
@@ -39,24 +39,28 @@ public class ChartUI {
 
             @NotNull final List lables = new ArrayList();
             @NotNull final List<DataSeriesItem> data = new ArrayList<>();
-            final ClosableIterator<? extends Row> iterator = columnView.iterator(sortedFilter(vaadinChart));
+            final ClosableIterator<Row> iterator = TrackedIterator.open(columnView, sortedFilter(vaadinChart));
 
-            while (iterator.hasNext()) {
-                Row row = iterator.next();
+            try {
+                while (iterator.hasNext()) {
+                    Row row = iterator.next();
 
-                final Object o = row.get(vaadinChart.columnNameField());
+                    final Object o = row.get(vaadinChart.columnNameField());
 
-                final Function<Object, String> xAxisLableRender = chartProperties.xAxisLabelRender;
+                    final Function<Object, String> xAxisLableRender = chartProperties.xAxisLabelRender;
 
-                if (o != null) {
-                    final String columnName = (xAxisLableRender == null) ? o.toString() : xAxisLableRender
-                            .apply(o);
+                    if (o != null) {
+                        final String columnName = (xAxisLableRender == null) ? o.toString() : xAxisLableRender
+                                .apply(o);
 
-                    lables.add(columnName);
+                        lables.add(columnName);
 
-                    @NotNull Number number = (Number) row.get(vaadinChartSeries.field);
-                    data.add(new DataSeriesItem(columnName, number));
+                        @NotNull Number number = (Number) row.get(vaadinChartSeries.field);
+                        data.add(new DataSeriesItem(columnName, number));
+                    }
                 }
+            } finally {
+                iterator.close();
             }
 
             if (!hasXAxis) {
@@ -1,17 +1,20 @@
 package net.openhft.chronicle.engine.gui;
 
 import net.openhft.chronicle.engine.api.column.Column;
-import net.openhft.chronicle.engine.api.column.Row;
 import org.intellij.lang.annotations.MagicConstant;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.InputStream;
 import java.io.Reader;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.net.URL;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -20,1043 +23,1286 @@ import java.util.Map;
  */
 class ChronicleColumnViewResultSet implements ResultSet {
 
+    /**
+     * the position after the last row, for when the number of rows is not yet known
+     */
+    private static final int AFTER_LAST = Integer.MAX_VALUE;
+
+    /**
+     * reads a page of the view, to move outside the rows already held
+     */
+    @FunctionalInterface
+    interface Pager {
+        /**
+         * @param page the index of the page, counting pages of {@code pageRows} rows from the
+         *             start of the view
+         */
+        @NotNull
+        PageBuffer page(int page);
+
+        /**
+         * releases anything held open to read the next page
+         */
+        default void close() {
+        }
+    }
+
+    /**
+     * the rows held, as slices of the pages they were read into, and the row number from 0 of the
+     * first row of each slice
+     */
     @NotNull
-    private final Iterator<? extends Row> iterator;
-    private final int pagelength;
-    private Row entry;
-    private int count = 0;
+    private List<PageBuffer> window;
+    @NotNull
+    private int[] windowStarts;
+    private int windowEnd;
+
+    @Nullable
+    private final Pager pager;
+    private final int pageRows;
+    private final int firstRow;
+    private final int limit;
+    /**
+     * the number of rows, or -1 until the last row has been read
+     */
+    private int size;
+
+    private int position = -1;
+    @Nullable
+    private PageBuffer page;
+    private int row = -1;
+    private int fetchDirection = FETCH_FORWARD;
+    private boolean closed;
+    @Nullable
+    private Statement statement;
 
     @NotNull
     private List<Column> columns;
+    @NotNull
+    private final KeyValueResultSetMetaData metaData;
+    private boolean wasNull;
 
-    ChronicleColumnViewResultSet(@NotNull Iterator<? extends Row> iterator,
-                                 int pagelength,
+    /**
+     * a result set of just the rows given
+     */
+    ChronicleColumnViewResultSet(@NotNull List<PageBuffer> pages,
                                  final @NotNull List<Column> columns) {
-        assert iterator.hasNext();
-        this.iterator = iterator;
-        this.pagelength = pagelength;
+        this(null, 0, 0, 0, columns, "");
+        window(pages, 0);
+        size = windowEnd;
+    }
+
+    /**
+     * a result set which reads its rows a page at a time, as they are moved to
+     *
+     * @param pager     reads the pages of the view
+     * @param pageRows  the number of rows in each page
+     * @param firstRow  the row of the view which is the first row of this result set
+     * @param limit     the most rows in this result set
+     * @param tableName the path of the view, or "" if the rows are of no view
+     */
+    ChronicleColumnViewResultSet(@Nullable Pager pager,
+                                 int pageRows,
+                                 int firstRow,
+                                 int limit,
+                                 final @NotNull List<Column> columns,
+                                 @NotNull String tableName) {
+        this.pager = pager;
+        this.pageRows = pageRows;
+        this.firstRow = firstRow;
+        this.limit = limit;
+        this.size = pager == null ? 0 : -1;
         this.columns = columns;
+        this.metaData = new KeyValueResultSetMetaData(columns, tableName);
+        window(Collections.emptyList(), 0);
+    }
+
+    /**
+     * @param statement the statement which ran the query, returned by {@link #getStatement()}
+     */
+    void statement(@Nullable Statement statement) {
+        this.statement = statement;
+    }
+
+    private void window(@NotNull List<PageBuffer> pages, int start) {
+        window = new ArrayList<>(pages.size());
+        windowStarts = new int[pages.size()];
+        windowEnd = start;
+        for (@NotNull PageBuffer page : pages) {
+            if (page.rows() == 0)
+                continue;
+            windowStarts[window.size()] = windowEnd;
+            window.add(page);
+            windowEnd += page.rows();
+        }
+        windowStarts = Arrays.copyOf(windowStarts, window.size());
+    }
+
+    private boolean inWindow(int row) {
+        return !window.isEmpty() && row >= windowStarts[0] && row < windowEnd;
+    }
+
+    /**
+     * @return {@code true} if there is a row {@code row}, reading its page if it is not held
+     */
+    private boolean exists(int row) {
+        if (row < 0)
+            return false;
+        if (size >= 0)
+            return row < size;
+        return inWindow(row) || load(row);
+    }
+
+    /**
+     * reads the page holding {@code row} into the window, noting the number of rows if it turns
+     * out to be the last page
+     *
+     * @return {@code true} if there is a row {@code row}
+     */
+    private boolean load(int row) {
+        if (pager == null || row >= limit)
+            return false;
+
+        final long viewRow = (long) firstRow + row;
+        final int pageIndex = (int) (viewRow / pageRows);
+        final long pageStart = (long) pageIndex * pageRows;
+        final long end = (long) firstRow + limit;
+
+        @NotNull final PageBuffer page = pager.page(pageIndex);
+        final int from = (int) Math.min(Math.max(firstRow - pageStart, 0), page.rows());
+        final int to = (int) Math.max(Math.min(page.rows(), end - pageStart), from);
+
+        final int start = (int) (pageStart + from - firstRow);
+        window(Collections.singletonList(page.slice(from, to)), start);
+
+        if (page.rows() < pageRows || pageStart + page.rows() >= end)
+            size = start + to - from;
+
+        return inWindow(row);
+    }
+
+    private int size() {
+        while (size < 0) {
+            if (!load(windowEnd) && size < 0)
+                size = windowEnd;
+        }
+        return size;
+    }
+
+    /**
+     * moves to the row {@code row}, counting from 0, or before the first or after the last row
+     *
+     * @return {@code true} if on a row
+     */
+    private boolean moveTo(int row) throws SQLException {
+        if (closed)
+            throw new SQLException("closed");
+
+        if (row < 0) {
+            beforeFirst();
+            return false;
+        }
+
+        if (!exists(row) || !inWindow(row) && !load(row)) {
+            afterLast();
+            return false;
+        }
+
+        int slice = Arrays.binarySearch(windowStarts, row);
+        if (slice < 0)
+            slice = -slice - 2;
+        page = window.get(slice);
+        this.row = row - windowStarts[slice];
+        position = row;
+        return true;
     }
 
     @Override
     public boolean next() throws SQLException {
-        boolean success = iterator.hasNext() && count < pagelength;
-        if (success) {
-            entry = iterator.next();
-            count++;
+        return position != AFTER_LAST && moveTo(position + 1);
+    }
+
+    @NotNull
+    private PageBuffer current() throws SQLException {
+        final PageBuffer page = this.page;
+        if (page == null)
+            throw new SQLException(closed ? "closed" : "not on a row");
+        return page;
+    }
+
+    /**
+     * @return the index from 0 of the column, once the current row has been checked and {@link
+     * #wasNull()} set for the cell
+     */
+    private int column(int columnIndex) throws SQLException {
+        if (columnIndex < 1 || columnIndex > columns.size())
+            throw new SQLException("no column " + columnIndex + ", there are " + columns.size());
+        wasNull = current().isNull(row, columnIndex - 1);
+        return columnIndex - 1;
+    }
+
+    /**
+     * @return the cell as milliseconds since the epoch, which is how the engine holds time stamps
+     */
+    private long getMillis(int columnIndex) throws SQLException {
+        final int column = column(columnIndex);
+        final Class type = columns.get(column).type;
+        if (type != null && java.util.Date.class.isAssignableFrom(type)) {
+            final Object value = page.get(row, column);
+            return value == null ? 0 : ((java.util.Date) value).getTime();
         }
-        return success;
+        return page.getLong(row, column);
     }
 
     @Override
     public void close() throws SQLException {
-
+        if (closed)
+            return;
+        closed = true;
+        page = null;
+        if (pager != null)
+            pager.close();
+        if (statement instanceof MyStatement)
+            ((MyStatement) statement).onClosed(this);
     }
 
     @Override
     public boolean wasNull() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return wasNull;
     }
 
-    @NotNull
+    @Nullable
     @Override
     public String getString(int columnIndex) throws SQLException {
-    /*    if (columnIndex == 1)
-            return entry.getKey().toString();
-        if (columnIndex == 2)
-            return entry.getValue().toString();
-*/
-        throw new UnsupportedOperationException();
+        final int column = column(columnIndex);
+        return page.getString(row, column);
     }
 
     @Override
     public boolean getBoolean(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        final int column = column(columnIndex);
+        return page.getBoolean(row, column);
     }
 
     @Override
     public byte getByte(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return (byte) getLong(columnIndex);
     }
 
     @Override
     public short getShort(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return (short) getLong(columnIndex);
     }
 
     @Override
     public int getInt(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return (int) getLong(columnIndex);
     }
 
     @Override
     public long getLong(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        final int column = column(columnIndex);
+        return page.getLong(row, column);
     }
 
     @Override
     public float getFloat(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return (float) getDouble(columnIndex);
     }
 
     @Override
     public double getDouble(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        final int column = column(columnIndex);
+        return page.getDouble(row, column);
     }
 
-    @NotNull
+    @Nullable
     @Override
     public BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        final BigDecimal value = getBigDecimal(columnIndex);
+        return value == null ? null : value.setScale(scale, RoundingMode.HALF_UP);
     }
 
-    @NotNull
+    @Nullable
     @Override
     public byte[] getBytes(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        final Object value = getObject(columnIndex);
+        if (value == null || value instanceof byte[])
+            return (byte[]) value;
+        throw new SQLException("column " + columnIndex + " is not a byte[]");
     }
 
-    @NotNull
+    @Nullable
     @Override
     public Date getDate(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        final long millis = getMillis(columnIndex);
+        return wasNull ? null : new Date(millis);
     }
 
-    @NotNull
+    @Nullable
     @Override
     public Time getTime(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        final long millis = getMillis(columnIndex);
+        return wasNull ? null : new Time(millis);
     }
 
-    @NotNull
+    @Nullable
     @Override
     public Timestamp getTimestamp(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        final long millis = getMillis(columnIndex);
+        return wasNull ? null : new Timestamp(millis);
     }
 
-    @NotNull
     @Override
     public InputStream getAsciiStream(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("a column can not be read as a stream");
     }
 
-    @NotNull
     @Override
     public InputStream getUnicodeStream(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("a column can not be read as a stream");
     }
 
-    @NotNull
     @Override
     public InputStream getBinaryStream(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("a column can not be read as a stream");
     }
 
-    @NotNull
+    @Nullable
     @Override
     public String getString(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getString(findColumn(columnLabel));
     }
 
     @Override
     public boolean getBoolean(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getBoolean(findColumn(columnLabel));
     }
 
     @Override
     public byte getByte(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getByte(findColumn(columnLabel));
     }
 
     @Override
     public short getShort(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getShort(findColumn(columnLabel));
     }
 
     @Override
     public int getInt(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getInt(findColumn(columnLabel));
     }
 
     @Override
     public long getLong(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getLong(findColumn(columnLabel));
     }
 
     @Override
     public float getFloat(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getFloat(findColumn(columnLabel));
     }
 
     @Override
     public double getDouble(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getDouble(findColumn(columnLabel));
     }
 
-    @NotNull
+    @Nullable
     @Override
     public BigDecimal getBigDecimal(String columnLabel, int scale) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getBigDecimal(findColumn(columnLabel), scale);
     }
 
-    @NotNull
+    @Nullable
     @Override
     public byte[] getBytes(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getBytes(findColumn(columnLabel));
     }
 
-    @NotNull
+    @Nullable
     @Override
     public Date getDate(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getDate(findColumn(columnLabel));
     }
 
-    @NotNull
+    @Nullable
     @Override
     public Time getTime(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getTime(findColumn(columnLabel));
     }
 
-    @NotNull
+    @Nullable
     @Override
     public Timestamp getTimestamp(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getTimestamp(findColumn(columnLabel));
     }
 
-    @NotNull
     @Override
     public InputStream getAsciiStream(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("a column can not be read as a stream");
     }
 
-    @NotNull
     @Override
     public InputStream getUnicodeStream(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("a column can not be read as a stream");
     }
 
-    @NotNull
     @Override
     public InputStream getBinaryStream(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("a column can not be read as a stream");
     }
 
-    @NotNull
+    @Nullable
     @Override
     public SQLWarning getWarnings() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        // no warnings are raised
+        return null;
     }
 
     @Override
     public void clearWarnings() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        // no warnings are raised
     }
 
-    @NotNull
     @Override
     public String getCursorName() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only, so has no cursor to update");
     }
 
     @NotNull
     @Override
     public ResultSetMetaData getMetaData() throws SQLException {
-        return new KeyValueResultSetMetaData(columns);
+        return metaData;
     }
 
     @Override
     public Object getObject(int columnIndex) throws SQLException {
-        return entry.get(columnIndex - 1);
+        final int column = column(columnIndex);
+        return page.get(row, column);
     }
 
     @Override
     public Object getObject(String columnLabel) throws SQLException {
-        return entry.get(columnLabel);
+        return getObject(findColumn(columnLabel));
     }
 
     @Override
     public int findColumn(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        final int index = metaData.indexOf(columnLabel);
+        if (index < 0)
+            throw new SQLException("no column labelled " + columnLabel);
+        return index + 1;
     }
 
-    @NotNull
     @Override
     public Reader getCharacterStream(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("a column can not be read as a stream");
     }
 
-    @NotNull
     @Override
     public Reader getCharacterStream(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("a column can not be read as a stream");
     }
 
-    @NotNull
+    @Nullable
     @Override
     public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        final Object value = getObject(columnIndex);
+        if (value == null || value instanceof BigDecimal)
+            return (BigDecimal) value;
+        if (value instanceof Double || value instanceof Float)
+            return BigDecimal.valueOf(((Number) value).doubleValue());
+        if (value instanceof Number)
+            return BigDecimal.valueOf(((Number) value).longValue());
+        return new BigDecimal(value.toString());
     }
 
-    @NotNull
+    @Nullable
     @Override
     public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getBigDecimal(findColumn(columnLabel));
     }
 
     @Override
     public boolean isBeforeFirst() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return position == -1 && exists(0);
     }
 
     @Override
     public boolean isAfterLast() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return position == AFTER_LAST && exists(0);
     }
 
     @Override
     public boolean isFirst() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return page != null && position == 0;
     }
 
     @Override
     public boolean isLast() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return page != null && !exists(position + 1);
     }
 
     @Override
     public void beforeFirst() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        position = -1;
+        page = null;
     }
 
     @Override
     public void afterLast() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        position = AFTER_LAST;
+        page = null;
     }
 
     @Override
     public boolean first() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return moveTo(0);
     }
 
     @Override
     public boolean last() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return moveTo(size() - 1);
     }
 
     @Override
     public int getRow() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return page == null ? 0 : position + 1;
     }
 
     @Override
     public boolean absolute(int row) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        if (row > 0)
+            return moveTo(row - 1);
+        if (row < 0)
+            return moveTo(size() + row);
+        beforeFirst();
+        return false;
     }
 
     @Override
     public boolean relative(int rows) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return moveTo((position == AFTER_LAST ? size() : position) + rows);
     }
 
     @Override
     public boolean previous() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return position == AFTER_LAST ? last() : moveTo(position - 1);
     }
 
     @Override
     public void setFetchDirection(@MagicConstant(intValues = {ResultSet.FETCH_FORWARD, ResultSet.FETCH_REVERSE, ResultSet.FETCH_UNKNOWN}) int direction) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        fetchDirection = direction;
     }
 
     @Override
     public int getFetchDirection() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return fetchDirection;
     }
 
     @Override
     public void setFetchSize(int rows) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        // rows are read a page at a time
     }
 
     @Override
     public int getFetchSize() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return pageRows;
     }
 
     @Override
     public int getType() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return TYPE_SCROLL_INSENSITIVE;
     }
 
     @Override
     public int getConcurrency() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return CONCUR_READ_ONLY;
     }
 
     @Override
     public boolean rowUpdated() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        // the result set is read only, so its rows are never changed by it
+        return false;
     }
 
     @Override
     public boolean rowInserted() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        // the result set is read only, so its rows are never changed by it
+        return false;
     }
 
     @Override
     public boolean rowDeleted() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        // the result set is read only, so its rows are never changed by it
+        return false;
     }
 
     @Override
     public void updateNull(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateBoolean(int columnIndex, boolean x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateByte(int columnIndex, byte x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateShort(int columnIndex, short x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateInt(int columnIndex, int x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateLong(int columnIndex, long x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateFloat(int columnIndex, float x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateDouble(int columnIndex, double x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateBigDecimal(int columnIndex, BigDecimal x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateString(int columnIndex, String x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateBytes(int columnIndex, byte[] x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateDate(int columnIndex, Date x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateTime(int columnIndex, Time x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateTimestamp(int columnIndex, Timestamp x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateAsciiStream(int columnIndex, InputStream x, int length) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateBinaryStream(int columnIndex, InputStream x, int length) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateCharacterStream(int columnIndex, Reader x, int length) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateObject(int columnIndex, Object x, int scaleOrLength) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateObject(int columnIndex, Object x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateNull(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateBoolean(String columnLabel, boolean x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateByte(String columnLabel, byte x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateShort(String columnLabel, short x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateInt(String columnLabel, int x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateLong(String columnLabel, long x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateFloat(String columnLabel, float x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateDouble(String columnLabel, double x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateBigDecimal(String columnLabel, BigDecimal x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateString(String columnLabel, String x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateBytes(String columnLabel, byte[] x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateDate(String columnLabel, Date x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateTime(String columnLabel, Time x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateTimestamp(String columnLabel, Timestamp x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateAsciiStream(String columnLabel, InputStream x, int length) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateBinaryStream(String columnLabel, InputStream x, int length) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateCharacterStream(String columnLabel, Reader reader, int length) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateObject(String columnLabel, Object x, int scaleOrLength) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateObject(String columnLabel, Object x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void insertRow() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateRow() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void deleteRow() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void refreshRow() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the rows are read once, refresh them by running the query again");
     }
 
     @Override
     public void cancelRowUpdates() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void moveToInsertRow() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void moveToCurrentRow() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @NotNull
     @Override
     public Statement getStatement() throws SQLException {
-        return new MyStatement();
+        return statement == null ? new MyStatement() : statement;
     }
 
-    @NotNull
     @Override
     public Object getObject(int columnIndex, Map<String, Class<?>> map) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the engine has no user defined types to map");
     }
 
-    @NotNull
     @Override
     public Ref getRef(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the engine has no Ref columns");
     }
 
-    @NotNull
     @Override
     public Blob getBlob(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the engine has no Blob columns");
     }
 
-    @NotNull
     @Override
     public Clob getClob(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the engine has no Clob columns");
     }
 
-    @NotNull
     @Override
     public Array getArray(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the engine has no Array columns");
     }
 
-    @NotNull
     @Override
     public Object getObject(String columnLabel, Map<String, Class<?>> map) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the engine has no user defined types to map");
     }
 
-    @NotNull
     @Override
     public Ref getRef(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the engine has no Ref columns");
     }
 
-    @NotNull
     @Override
     public Blob getBlob(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the engine has no Blob columns");
     }
 
-    @NotNull
     @Override
     public Clob getClob(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the engine has no Clob columns");
     }
 
-    @NotNull
     @Override
     public Array getArray(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the engine has no Array columns");
     }
 
-    @NotNull
+    @Nullable
     @Override
     public Date getDate(int columnIndex, Calendar cal) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getDate(columnIndex);
     }
 
-    @NotNull
+    @Nullable
     @Override
     public Date getDate(String columnLabel, Calendar cal) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getDate(findColumn(columnLabel));
     }
 
-    @NotNull
+    @Nullable
     @Override
     public Time getTime(int columnIndex, Calendar cal) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getTime(columnIndex);
     }
 
-    @NotNull
+    @Nullable
     @Override
     public Time getTime(String columnLabel, Calendar cal) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getTime(findColumn(columnLabel));
     }
 
-    @NotNull
+    @Nullable
     @Override
     public Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getTimestamp(columnIndex);
     }
 
-    @NotNull
+    @Nullable
     @Override
     public Timestamp getTimestamp(String columnLabel, Calendar cal) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getTimestamp(findColumn(columnLabel));
     }
 
-    @NotNull
     @Override
     public URL getURL(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the engine has no URL columns");
     }
 
-    @NotNull
     @Override
     public URL getURL(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the engine has no URL columns");
     }
 
     @Override
     public void updateRef(int columnIndex, Ref x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateRef(String columnLabel, Ref x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateBlob(int columnIndex, Blob x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateBlob(String columnLabel, Blob x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateClob(int columnIndex, Clob x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateClob(String columnLabel, Clob x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateArray(int columnIndex, Array x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateArray(String columnLabel, Array x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
-    @NotNull
     @Override
     public RowId getRowId(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the engine has no RowId columns");
     }
 
-    @NotNull
     @Override
     public RowId getRowId(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the engine has no RowId columns");
     }
 
     @Override
     public void updateRowId(int columnIndex, RowId x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateRowId(String columnLabel, RowId x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public int getHoldability() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return CLOSE_CURSORS_AT_COMMIT;
     }
 
     @Override
     public boolean isClosed() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return closed;
     }
 
     @Override
     public void updateNString(int columnIndex, String nString) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateNString(String columnLabel, String nString) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateNClob(int columnIndex, NClob nClob) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateNClob(String columnLabel, NClob nClob) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
-    @NotNull
     @Override
     public NClob getNClob(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the engine has no NClob columns");
     }
 
-    @NotNull
     @Override
     public NClob getNClob(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the engine has no NClob columns");
     }
 
-    @NotNull
     @Override
     public SQLXML getSQLXML(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the engine has no SQLXML columns");
     }
 
-    @NotNull
     @Override
     public SQLXML getSQLXML(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the engine has no SQLXML columns");
     }
 
     @Override
     public void updateSQLXML(int columnIndex, SQLXML xmlObject) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateSQLXML(String columnLabel, SQLXML xmlObject) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
-    @NotNull
+    @Nullable
     @Override
     public String getNString(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getString(columnIndex);
     }
 
-    @NotNull
+    @Nullable
     @Override
     public String getNString(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getString(columnLabel);
     }
 
-    @NotNull
     @Override
     public Reader getNCharacterStream(int columnIndex) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("a column can not be read as a stream");
     }
 
-    @NotNull
     @Override
     public Reader getNCharacterStream(String columnLabel) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("a column can not be read as a stream");
     }
 
     @Override
     public void updateNCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateNCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateAsciiStream(int columnIndex, InputStream x, long length) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateBinaryStream(int columnIndex, InputStream x, long length) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateAsciiStream(String columnLabel, InputStream x, long length) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateBinaryStream(String columnLabel, InputStream x, long length) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateBlob(int columnIndex, InputStream inputStream, long length) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateBlob(String columnLabel, InputStream inputStream, long length) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateClob(int columnIndex, Reader reader, long length) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateClob(String columnLabel, Reader reader, long length) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateNClob(int columnIndex, Reader reader, long length) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateNClob(String columnLabel, Reader reader, long length) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateNCharacterStream(int columnIndex, Reader x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateNCharacterStream(String columnLabel, Reader reader) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateAsciiStream(int columnIndex, InputStream x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateBinaryStream(int columnIndex, InputStream x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateCharacterStream(int columnIndex, Reader x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateAsciiStream(String columnLabel, InputStream x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateBinaryStream(String columnLabel, InputStream x) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateCharacterStream(String columnLabel, Reader reader) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateBlob(int columnIndex, InputStream inputStream) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateBlob(String columnLabel, InputStream inputStream) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateClob(int columnIndex, Reader reader) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateClob(String columnLabel, Reader reader) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateNClob(int columnIndex, Reader reader) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
     @Override
     public void updateNClob(String columnLabel, Reader reader) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the result set is read only");
     }
 
-    @NotNull
+    @Nullable
     @Override
     public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
-        throw new UnsupportedOperationException("todo");
-    }
-
-    @NotNull
+        final Object value;
+        if (type == Long.class)
+            value = getLong(columnIndex);
+        else if (type == Integer.class)
+            value = getInt(columnIndex);
+        else if (type == Short.class)
+            value = getShort(columnIndex);
+        else if (type == Byte.class)
+            value = getByte(columnIndex);
+        else if (type == Double.class)
+            value = getDouble(columnIndex);
+        else if (type == Float.class)
+            value = getFloat(columnIndex);
+        else if (type == Boolean.class)
+            value = getBoolean(columnIndex);
+        else if (type == String.class)
+            value = getString(columnIndex);
+        else if (type == BigDecimal.class)
+            value = getBigDecimal(columnIndex);
+        else if (type == Timestamp.class)
+            value = getTimestamp(columnIndex);
+        else if (type == Date.class)
+            value = getDate(columnIndex);
+        else if (type == Time.class)
+            value = getTime(columnIndex);
+        else
+            value = getObject(columnIndex);
+
+        if (wasNull)
+            return null;
+        if (!type.isInstance(value))
+            throw new SQLException("column " + columnIndex + " is not a " + type.getName());
+        return type.cast(value);
+    }
+
+    @Nullable
     @Override
     public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return getObject(findColumn(columnLabel), type);
     }
 
     @NotNull
     @Override
     public <T> T unwrap(Class<T> iface) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        if (iface.isInstance(this))
+            return iface.cast(this);
+        throw new SQLException("not a " + iface.getName());
     }
 
     @Override
     public boolean isWrapperFor(Class<?> iface) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return iface.isInstance(this);
     }
 }
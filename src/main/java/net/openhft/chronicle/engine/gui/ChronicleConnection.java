@@ -0,0 +1,470 @@
+package net.openhft.chronicle.engine.gui;
+
+import net.openhft.chronicle.engine.api.column.ColumnViewInternal;
+import net.openhft.chronicle.engine.api.column.MapColumnView;
+import net.openhft.chronicle.engine.api.column.QueueColumnView;
+import net.openhft.chronicle.engine.api.map.MapView;
+import net.openhft.chronicle.engine.api.pubsub.Subscriber;
+import net.openhft.chronicle.engine.api.tree.Asset;
+import net.openhft.chronicle.engine.api.tree.AssetTree;
+import net.openhft.chronicle.engine.api.tree.RequestContext;
+import net.openhft.chronicle.engine.query.Filter;
+import net.openhft.chronicle.engine.tree.QueueView;
+import net.openhft.chronicle.engine.tree.TopologicalEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.*;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+
+
+/**
+ * A read only connection to an asset tree, where each map or queue is a table named by its path.
+ * <p>
+ * Queries run on the engine, which filters and sorts the rows next to the data, and the rows are
+ * read back a page at a time as the result set is moved through. Each query is planned once, and
+ * its plan held in a {@link PlanCache} for the next time it is run.
+ */
+public class ChronicleConnection implements Connection {
+
+    @NotNull
+    private final AssetTree assetTree;
+    private final boolean ownsTree;
+    private final Map<String, ColumnViewInternal> columnViews = new ConcurrentHashMap<>();
+    /**
+     * the path of each map and queue the tree has reported, and which it is
+     */
+    private final Map<String, String> tables = new ConcurrentSkipListMap<>();
+    private final PlanCache planCache = new PlanCache(PlanCache.DEFAULT_MAX_PLANS);
+    @NotNull
+    private final RequestContext rc = RequestContext.requestContext("")
+            .elementType(TopologicalEvent.class).bootstrap(true);
+    @NotNull
+    private final Subscriber<TopologicalEvent> sub = this::onTopologicalEvent;
+    private volatile boolean closed;
+
+    /**
+     * @param ownsTree {@code true} if the asset tree is closed when this connection is closed
+     */
+    ChronicleConnection(@NotNull AssetTree assetTree, boolean ownsTree) {
+        this.assetTree = assetTree;
+        this.ownsTree = ownsTree;
+
+        // each asset is reported when the subscription starts, then as it is added or removed
+        assetTree.acquireSubscription(rc).registerSubscriber(rc, sub, Filter.empty());
+    }
+
+    private void onTopologicalEvent(@NotNull TopologicalEvent e) {
+        final String path = e.fullName();
+        if (path == null)
+            return;
+
+        @NotNull final Set<Class> viewTypes = e.viewTypes();
+        if (viewTypes.stream().anyMatch(QueueView.class::isAssignableFrom))
+            tables.put(path, "queue");
+        else if (viewTypes.stream().anyMatch(MapView.class::isAssignableFrom))
+            tables.put(path, "map");
+        else
+            tables.remove(path);
+
+        // a view added or removed may change the columns under the path, so plan its queries again
+        final ColumnViewInternal columnView = columnViews.remove(path);
+        if (columnView != null)
+            Schema.invalidate(columnView);
+    }
+
+    /**
+     * @return the path of each map and queue of the tree, in order, and whether it is a map or
+     * queue
+     */
+    @NotNull
+    Map<String, String> tables() throws SQLException {
+        checkOpen();
+        return Collections.unmodifiableMap(tables);
+    }
+
+    /**
+     * @return the columns of the view of the map or queue at {@code path}
+     */
+    @NotNull
+    Schema schema(@NotNull String path) throws SQLException {
+        checkOpen();
+        return Schema.of(columnView(path));
+    }
+
+    @NotNull
+    private ColumnViewInternal columnView(@NotNull String path) {
+        return columnViews.computeIfAbsent(path, p -> {
+            @NotNull final Asset asset = assetTree.acquireAsset(p);
+            return asset.getView(QueueView.class) != null ?
+                    asset.acquireView(QueueColumnView.class) :
+                    asset.acquireView(MapColumnView.class);
+        });
+    }
+
+    /**
+     * @return the plan of {@code sql}, from the cache if it has been run on this connection before
+     */
+    @NotNull
+    QueryPlan plan(@NotNull String sql) throws SQLException {
+        checkOpen();
+        QueryPlan plan = planCache.get(sql);
+        if (plan == null || !plan.isCurrent()) {
+            @NotNull final SelectStatement select = SelectStatement.parse(sql);
+            plan = QueryPlan.of(columnView(select.path), select);
+            planCache.put(sql, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * runs {@code plan} on the engine
+     *
+     * @param parameters the values of its {@code ?} parameters
+     * @param maxRows    the most rows to return, or 0 for no limit
+     * @param fetchSize  the rows to read from the engine at a time, or 0 for the default
+     */
+    @NotNull
+    ChronicleColumnViewResultSet executeQuery(@NotNull QueryPlan plan,
+                                              @NotNull Object[] parameters,
+                                              int maxRows,
+                                              int fetchSize) throws SQLException {
+        checkOpen();
+
+        int limit = plan.select.limit(parameters);
+        if (maxRows > 0)
+            limit = Math.min(limit, maxRows);
+        final int pageRows = fetchSize > 0 ? fetchSize : ColumnQueryDelegate.PAGE_ROWS;
+
+        return new ChronicleColumnViewResultSet(
+                new ViewPager(plan.columnView, plan.bind(parameters), plan.columns, plan.source, pageRows),
+                pageRows, plan.select.offset(parameters), limit, plan.columns, plan.select.path);
+    }
+
+    void checkOpen() throws SQLException {
+        if (closed)
+            throw new SQLException("the connection is closed");
+    }
+
+    @NotNull
+    @Override
+    public Statement createStatement() throws SQLException {
+        checkOpen();
+        return new MyStatement(this);
+    }
+
+    @NotNull
+    @Override
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        checkOpen();
+        return new MyPreparedStatement(this, sql);
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql) throws SQLException {
+        throw new SQLFeatureNotSupportedException("stored procedures are not supported");
+    }
+
+    @Override
+    public String nativeSQL(String sql) throws SQLException {
+        return sql;
+    }
+
+    @Override
+    public void setAutoCommit(boolean autoCommit) throws SQLException {
+        if (!autoCommit)
+            throw new SQLFeatureNotSupportedException("transactions are not supported");
+    }
+
+    @Override
+    public boolean getAutoCommit() throws SQLException {
+        return true;
+    }
+
+    @Override
+    public void commit() throws SQLException {
+        // the connection is read only, so there is nothing to commit
+    }
+
+    @Override
+    public void rollback() throws SQLException {
+        // the connection is read only, so there is nothing to roll back
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (closed)
+            return;
+        closed = true;
+        assetTree.acquireSubscription(rc).unregisterSubscriber(sub);
+        columnViews.clear();
+        planCache.invalidate();
+        if (ownsTree)
+            assetTree.close();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return closed;
+    }
+
+    @NotNull
+    @Override
+    public DatabaseMetaData getMetaData() throws SQLException {
+        checkOpen();
+        return new ChronicleDatabaseMetaData(this);
+    }
+
+    @Override
+    public void setReadOnly(boolean readOnly) throws SQLException {
+        // always read only
+    }
+
+    @Override
+    public boolean isReadOnly() throws SQLException {
+        return true;
+    }
+
+    @Override
+    public void setCatalog(String catalog) throws SQLException {
+        // there are no catalogs
+    }
+
+    @Nullable
+    @Override
+    public String getCatalog() throws SQLException {
+        return null;
+    }
+
+    @Override
+    public void setTransactionIsolation(int level) throws SQLException {
+        if (level != TRANSACTION_NONE)
+            throw new SQLFeatureNotSupportedException("transactions are not supported");
+    }
+
+    @Override
+    public int getTransactionIsolation() throws SQLException {
+        return TRANSACTION_NONE;
+    }
+
+    @Nullable
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return null;
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+    }
+
+    @NotNull
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
+        checkResultSet(resultSetType, resultSetConcurrency);
+        return createStatement();
+    }
+
+    @NotNull
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency)
+            throws SQLException {
+        checkResultSet(resultSetType, resultSetConcurrency);
+        return prepareStatement(sql);
+    }
+
+    @NotNull
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability)
+            throws SQLException {
+        return createStatement(resultSetType, resultSetConcurrency);
+    }
+
+    @NotNull
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency,
+                                              int resultSetHoldability) throws SQLException {
+        return prepareStatement(sql, resultSetType, resultSetConcurrency);
+    }
+
+    /**
+     * the result sets are always scrollable over a snapshot of the pages read, and read only
+     */
+    private static void checkResultSet(int resultSetType, int resultSetConcurrency) throws SQLException {
+        if (resultSetType == ResultSet.TYPE_SCROLL_SENSITIVE)
+            throw new SQLFeatureNotSupportedException("TYPE_SCROLL_SENSITIVE is not supported");
+        if (resultSetConcurrency != ResultSet.CONCUR_READ_ONLY)
+            throw new SQLFeatureNotSupportedException("the result sets are read only");
+    }
+
+    @Override
+    public int getHoldability() throws SQLException {
+        return ResultSet.HOLD_CURSORS_OVER_COMMIT;
+    }
+
+    @Override
+    public boolean isValid(int timeout) throws SQLException {
+        return !closed;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this))
+            return iface.cast(this);
+        throw new SQLException("not a " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this);
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        return prepareCall(sql);
+    }
+
+    @NotNull
+    @Override
+    public Map<String, Class<?>> getTypeMap() throws SQLException {
+        return new HashMap<>();
+    }
+
+    @Override
+    public void setTypeMap(Map<String, Class<?>> map) throws SQLException {
+        throw new SQLFeatureNotSupportedException("user defined types are not supported");
+    }
+
+    @Override
+    public void setHoldability(int holdability) throws SQLException {
+        // the result sets hold no cursor on the engine which a commit could close
+    }
+
+    @Override
+    public Savepoint setSavepoint() throws SQLException {
+        throw new SQLFeatureNotSupportedException("transactions are not supported");
+    }
+
+    @Override
+    public Savepoint setSavepoint(String name) throws SQLException {
+        throw new SQLFeatureNotSupportedException("transactions are not supported");
+    }
+
+    @Override
+    public void rollback(Savepoint savepoint) throws SQLException {
+        throw new SQLFeatureNotSupportedException("transactions are not supported");
+    }
+
+    @Override
+    public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+        throw new SQLFeatureNotSupportedException("transactions are not supported");
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        return prepareCall(sql);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+        if (autoGeneratedKeys != Statement.NO_GENERATED_KEYS)
+            throw new SQLFeatureNotSupportedException("the connection is read only, so generates no keys");
+        return prepareStatement(sql);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+        throw new SQLFeatureNotSupportedException("the connection is read only, so generates no keys");
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+        throw new SQLFeatureNotSupportedException("the connection is read only, so generates no keys");
+    }
+
+    @Override
+    public Clob createClob() throws SQLException {
+        throw new SQLFeatureNotSupportedException("large objects are not supported");
+    }
+
+    @Override
+    public Blob createBlob() throws SQLException {
+        throw new SQLFeatureNotSupportedException("large objects are not supported");
+    }
+
+    @Override
+    public NClob createNClob() throws SQLException {
+        throw new SQLFeatureNotSupportedException("large objects are not supported");
+    }
+
+    @Override
+    public SQLXML createSQLXML() throws SQLException {
+        throw new SQLFeatureNotSupportedException("large objects are not supported");
+    }
+
+    @Override
+    public void setClientInfo(String name, String value) throws SQLClientInfoException {
+        // there are no client info properties to set
+    }
+
+    @Override
+    public void setClientInfo(Properties properties) throws SQLClientInfoException {
+        // there are no client info properties to set
+    }
+
+    @Nullable
+    @Override
+    public String getClientInfo(String name) throws SQLException {
+        return null;
+    }
+
+    @NotNull
+    @Override
+    public Properties getClientInfo() throws SQLException {
+        return new Properties();
+    }
+
+    @Override
+    public Array createArrayOf(String typeName, Object[] elements) throws SQLException {
+        throw new SQLFeatureNotSupportedException("arrays are not supported");
+    }
+
+    @Override
+    public Struct createStruct(String typeName, Object[] attributes) throws SQLException {
+        throw new SQLFeatureNotSupportedException("user defined types are not supported");
+    }
+
+    @Override
+    public void setSchema(String schema) throws SQLException {
+        // there are no schemas
+    }
+
+    @Nullable
+    @Override
+    public String getSchema() throws SQLException {
+        return null;
+    }
+
+    @Override
+    public void abort(Executor executor) throws SQLException {
+        if (executor == null)
+            throw new SQLException("no executor to abort with");
+        close();
+    }
+
+    @Override
+    public void setNetworkTimeout(Executor executor, int milliseconds) throws SQLException {
+        // the tree has timeouts of its own
+    }
+
+    @Override
+    public int getNetworkTimeout() throws SQLException {
+        return 0;
+    }
+}
@@ -0,0 +1,1211 @@
+package net.openhft.chronicle.engine.gui;
+
+import net.openhft.chronicle.engine.api.column.Column;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Describes a {@link ChronicleConnection} to the tools which browse a database. Each map or queue
+ * is a table named by its path, with the columns of its view, and there are no catalogs, schemas,
+ * procedures, indexes or foreign keys. The connection is read only, and only runs the selects
+ * {@link SelectStatement} parses.
+ */
+final class ChronicleDatabaseMetaData implements DatabaseMetaData {
+
+    private static final String TABLE = "TABLE";
+
+    @NotNull
+    private final ChronicleConnection connection;
+
+    ChronicleDatabaseMetaData(@NotNull ChronicleConnection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * the tables whose path matches {@code tableNamePattern}, in order of path
+     */
+    @NotNull
+    @Override
+    public ResultSet getTables(String catalog, String schemaPattern, String tableNamePattern, String[] types)
+            throws SQLException {
+        @NotNull final Rows rows = new Rows("TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "TABLE_TYPE", "REMARKS",
+                "TYPE_CAT", "TYPE_SCHEM", "TYPE_NAME", "SELF_REFERENCING_COL_NAME", "REF_GENERATION");
+        if (!inNoCatalog(catalog) || !inNoSchema(schemaPattern) || !hasType(types, TABLE))
+            return rows.resultSet();
+
+        @NotNull final Pattern tables = like(tableNamePattern);
+        for (@NotNull Map.Entry<String, String> table : connection.tables().entrySet()) {
+            if (tables.matcher(table.getKey()).matches())
+                rows.add(null, null, table.getKey(), TABLE, table.getValue(), null, null, null, null, null);
+        }
+        return rows.resultSet();
+    }
+
+    /**
+     * the columns of the views of the tables matching {@code tableNamePattern}, as the engine
+     * reports them
+     */
+    @NotNull
+    @Override
+    public ResultSet getColumns(String catalog, String schemaPattern, String tableNamePattern,
+                                String columnNamePattern) throws SQLException {
+        @NotNull final Rows rows = new Rows("TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "COLUMN_NAME", "DATA_TYPE",
+                "TYPE_NAME", "COLUMN_SIZE", "BUFFER_LENGTH", "DECIMAL_DIGITS", "NUM_PREC_RADIX", "NULLABLE",
+                "REMARKS", "COLUMN_DEF", "SQL_DATA_TYPE", "SQL_DATETIME_SUB", "CHAR_OCTET_LENGTH",
+                "ORDINAL_POSITION", "IS_NULLABLE", "SCOPE_CATALOG", "SCOPE_SCHEMA", "SCOPE_TABLE",
+                "SOURCE_DATA_TYPE", "IS_AUTOINCREMENT", "IS_GENERATEDCOLUMN");
+        if (!inNoCatalog(catalog) || !inNoSchema(schemaPattern))
+            return rows.resultSet();
+
+        @NotNull final Pattern tables = like(tableNamePattern);
+        @NotNull final Pattern names = like(columnNamePattern);
+        for (@NotNull String table : connection.tables().keySet()) {
+            if (!tables.matcher(table).matches())
+                continue;
+            @NotNull final List<Column> columns = connection.schema(table).columns;
+            for (int i = 0; i < columns.size(); i++) {
+                final Column column = columns.get(i);
+                if (!names.matcher(column.name).matches())
+                    continue;
+                final int nullable = column.primaryKey ? columnNoNulls : columnNullable;
+                rows.add(null, null, table, column.name, sqlType(column.type), typeName(column.type),
+                        null, null, null, null, nullable,
+                        null, null, null, null, null,
+                        i + 1, column.primaryKey ? "NO" : "YES", null, null, null,
+                        null, "NO", "NO");
+            }
+        }
+        return rows.resultSet();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getPrimaryKeys(String catalog, String schema, String table) throws SQLException {
+        @NotNull final Rows rows = new Rows("TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "COLUMN_NAME", "KEY_SEQ",
+                "PK_NAME");
+        if (table == null || !inNoCatalog(catalog) || !inNoSchema(schema) || !connection.tables().containsKey(table))
+            return rows.resultSet();
+
+        @NotNull final List<String> primaryKeys = connection.schema(table).primaryKeys;
+        for (int i = 0; i < primaryKeys.size(); i++) {
+            rows.add(null, null, table, primaryKeys.get(i), (short) (i + 1), null);
+        }
+        return rows.resultSet();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getTableTypes() throws SQLException {
+        return new Rows("TABLE_TYPE").add(TABLE).resultSet();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getSchemas() throws SQLException {
+        return new Rows("TABLE_SCHEM", "TABLE_CATALOG").resultSet();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getSchemas(String catalog, String schemaPattern) throws SQLException {
+        return getSchemas();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getCatalogs() throws SQLException {
+        return new Rows("TABLE_CAT").resultSet();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getTypeInfo() throws SQLException {
+        @NotNull final Rows rows = new Rows("TYPE_NAME", "DATA_TYPE", "PRECISION", "LITERAL_PREFIX",
+                "LITERAL_SUFFIX", "CREATE_PARAMS", "NULLABLE", "CASE_SENSITIVE", "SEARCHABLE",
+                "UNSIGNED_ATTRIBUTE", "FIXED_PREC_SCALE", "AUTO_INCREMENT", "LOCAL_TYPE_NAME", "MINIMUM_SCALE",
+                "MAXIMUM_SCALE", "SQL_DATA_TYPE", "SQL_DATETIME_SUB", "NUM_PREC_RADIX");
+        for (@NotNull Class type : new Class[]{Boolean.class, Byte.class, Short.class, Integer.class, Long.class,
+                Float.class, Double.class, String.class}) {
+            final boolean string = type == String.class;
+            rows.add(typeName(type), sqlType(type), null, string ? "'" : null,
+                    string ? "'" : null, null, (short) typeNullable, string, (short) typeSearchable,
+                    false, false, false, null, null,
+                    null, null, null, string ? null : 10);
+        }
+        return rows.resultSet();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getProcedures(String catalog, String schemaPattern, String procedureNamePattern)
+            throws SQLException {
+        return new Rows("PROCEDURE_CAT", "PROCEDURE_SCHEM", "PROCEDURE_NAME", "RESERVED1", "RESERVED2",
+                "RESERVED3", "REMARKS", "PROCEDURE_TYPE", "SPECIFIC_NAME").resultSet();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getProcedureColumns(String catalog, String schemaPattern, String procedureNamePattern,
+                                         String columnNamePattern) throws SQLException {
+        return new Rows("PROCEDURE_CAT", "PROCEDURE_SCHEM", "PROCEDURE_NAME", "COLUMN_NAME", "COLUMN_TYPE",
+                "DATA_TYPE", "TYPE_NAME", "PRECISION", "LENGTH", "SCALE", "RADIX", "NULLABLE", "REMARKS",
+                "COLUMN_DEF", "SQL_DATA_TYPE", "SQL_DATETIME_SUB", "CHAR_OCTET_LENGTH", "ORDINAL_POSITION",
+                "IS_NULLABLE", "SPECIFIC_NAME").resultSet();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getFunctions(String catalog, String schemaPattern, String functionNamePattern)
+            throws SQLException {
+        return new Rows("FUNCTION_CAT", "FUNCTION_SCHEM", "FUNCTION_NAME", "REMARKS", "FUNCTION_TYPE",
+                "SPECIFIC_NAME").resultSet();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getFunctionColumns(String catalog, String schemaPattern, String functionNamePattern,
+                                        String columnNamePattern) throws SQLException {
+        return new Rows("FUNCTION_CAT", "FUNCTION_SCHEM", "FUNCTION_NAME", "COLUMN_NAME", "COLUMN_TYPE",
+                "DATA_TYPE", "TYPE_NAME", "PRECISION", "LENGTH", "SCALE", "RADIX", "NULLABLE", "REMARKS",
+                "CHAR_OCTET_LENGTH", "ORDINAL_POSITION", "IS_NULLABLE", "SPECIFIC_NAME").resultSet();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getColumnPrivileges(String catalog, String schema, String table, String columnNamePattern)
+            throws SQLException {
+        return new Rows("TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "COLUMN_NAME", "GRANTOR", "GRANTEE",
+                "PRIVILEGE", "IS_GRANTABLE").resultSet();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getTablePrivileges(String catalog, String schemaPattern, String tableNamePattern)
+            throws SQLException {
+        return new Rows("TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "GRANTOR", "GRANTEE", "PRIVILEGE",
+                "IS_GRANTABLE").resultSet();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getBestRowIdentifier(String catalog, String schema, String table, int scope,
+                                          boolean nullable) throws SQLException {
+        return new Rows("SCOPE", "COLUMN_NAME", "DATA_TYPE", "TYPE_NAME", "COLUMN_SIZE", "BUFFER_LENGTH",
+                "DECIMAL_DIGITS", "PSEUDO_COLUMN").resultSet();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getVersionColumns(String catalog, String schema, String table) throws SQLException {
+        return new Rows("SCOPE", "COLUMN_NAME", "DATA_TYPE", "TYPE_NAME", "COLUMN_SIZE", "BUFFER_LENGTH",
+                "DECIMAL_DIGITS", "PSEUDO_COLUMN").resultSet();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getImportedKeys(String catalog, String schema, String table) throws SQLException {
+        return keys();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getExportedKeys(String catalog, String schema, String table) throws SQLException {
+        return keys();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getCrossReference(String parentCatalog, String parentSchema, String parentTable,
+                                       String foreignCatalog, String foreignSchema, String foreignTable)
+            throws SQLException {
+        return keys();
+    }
+
+    /**
+     * there are no foreign keys
+     */
+    @NotNull
+    private static ResultSet keys() {
+        return new Rows("PKTABLE_CAT", "PKTABLE_SCHEM", "PKTABLE_NAME", "PKCOLUMN_NAME", "FKTABLE_CAT",
+                "FKTABLE_SCHEM", "FKTABLE_NAME", "FKCOLUMN_NAME", "KEY_SEQ", "UPDATE_RULE", "DELETE_RULE",
+                "FK_NAME", "PK_NAME", "DEFERRABILITY").resultSet();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getIndexInfo(String catalog, String schema, String table, boolean unique,
+                                  boolean approximate) throws SQLException {
+        return new Rows("TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "NON_UNIQUE", "INDEX_QUALIFIER",
+                "INDEX_NAME", "TYPE", "ORDINAL_POSITION", "COLUMN_NAME", "ASC_OR_DESC", "CARDINALITY", "PAGES",
+                "FILTER_CONDITION").resultSet();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getUDTs(String catalog, String schemaPattern, String typeNamePattern, int[] types)
+            throws SQLException {
+        return new Rows("TYPE_CAT", "TYPE_SCHEM", "TYPE_NAME", "CLASS_NAME", "DATA_TYPE", "REMARKS",
+                "BASE_TYPE").resultSet();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getSuperTypes(String catalog, String schemaPattern, String typeNamePattern)
+            throws SQLException {
+        return new Rows("TYPE_CAT", "TYPE_SCHEM", "TYPE_NAME", "SUPERTYPE_CAT", "SUPERTYPE_SCHEM",
+                "SUPERTYPE_NAME").resultSet();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getSuperTables(String catalog, String schemaPattern, String tableNamePattern)
+            throws SQLException {
+        return new Rows("TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "SUPERTABLE_NAME").resultSet();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getAttributes(String catalog, String schemaPattern, String typeNamePattern,
+                                   String attributeNamePattern) throws SQLException {
+        return new Rows("TYPE_CAT", "TYPE_SCHEM", "TYPE_NAME", "ATTR_NAME", "DATA_TYPE", "ATTR_TYPE_NAME",
+                "ATTR_SIZE", "DECIMAL_DIGITS", "NUM_PREC_RADIX", "NULLABLE", "REMARKS", "ATTR_DEF",
+                "SQL_DATA_TYPE", "SQL_DATETIME_SUB", "CHAR_OCTET_LENGTH", "ORDINAL_POSITION", "IS_NULLABLE",
+                "SCOPE_CATALOG", "SCOPE_SCHEMA", "SCOPE_TABLE", "SOURCE_DATA_TYPE").resultSet();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getClientInfoProperties() throws SQLException {
+        return new Rows("NAME", "MAX_LEN", "DEFAULT_VALUE", "DESCRIPTION").resultSet();
+    }
+
+    @NotNull
+    @Override
+    public ResultSet getPseudoColumns(String catalog, String schemaPattern, String tableNamePattern,
+                                      String columnNamePattern) throws SQLException {
+        return new Rows("TABLE_CAT", "TABLE_SCHEM", "TABLE_NAME", "COLUMN_NAME", "DATA_TYPE", "COLUMN_SIZE",
+                "DECIMAL_DIGITS", "NUM_PREC_RADIX", "COLUMN_USAGE", "REMARKS", "CHAR_OCTET_LENGTH",
+                "IS_NULLABLE").resultSet();
+    }
+
+    /**
+     * there are no catalogs, so only a {@code null} or empty catalog matches the tables
+     */
+    private static boolean inNoCatalog(@Nullable String catalog) {
+        return catalog == null || catalog.isEmpty();
+    }
+
+    /**
+     * there are no schemas, so only a pattern which matches the empty name matches the tables
+     */
+    private static boolean inNoSchema(@Nullable String schemaPattern) {
+        return like(schemaPattern).matcher("").matches();
+    }
+
+    private static boolean hasType(@Nullable String[] types, @NotNull String type) {
+        if (types == null)
+            return true;
+        for (String t : types) {
+            if (type.equalsIgnoreCase(t))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the regular expression of a {@code LIKE} pattern, where {@code %} matches any
+     * characters, {@code _} any one character, and {@code null} matches everything
+     */
+    @NotNull
+    static Pattern like(@Nullable String pattern) {
+        if (pattern == null)
+            return Pattern.compile(".*", Pattern.DOTALL);
+
+        @NotNull final StringBuilder regex = new StringBuilder();
+        @NotNull final StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < pattern.length(); i++) {
+            final char c = pattern.charAt(i);
+            if (c == '\\' && i + 1 < pattern.length()) {
+                literal.append(pattern.charAt(++i));
+                continue;
+            }
+            if (c != '%' && c != '_') {
+                literal.append(c);
+                continue;
+            }
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+                literal.setLength(0);
+            }
+            regex.append(c == '%' ? ".*" : ".");
+        }
+        if (literal.length() > 0)
+            regex.append(Pattern.quote(literal.toString()));
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    /**
+     * @return the {@link Types} of the values of a column of {@code type}
+     */
+    static int sqlType(@Nullable Class type) {
+        if (type == Boolean.class || type == boolean.class)
+            return Types.BOOLEAN;
+        if (type == Byte.class || type == byte.class)
+            return Types.TINYINT;
+        if (type == Short.class || type == short.class)
+            return Types.SMALLINT;
+        if (type == Integer.class || type == int.class)
+            return Types.INTEGER;
+        if (type == Long.class || type == long.class)
+            return Types.BIGINT;
+        if (type == Float.class || type == float.class)
+            return Types.REAL;
+        if (type == Double.class || type == double.class)
+            return Types.DOUBLE;
+        if (type != null && CharSequence.class.isAssignableFrom(type))
+            return Types.VARCHAR;
+        return Types.JAVA_OBJECT;
+    }
+
+    @NotNull
+    private static String typeName(@Nullable Class type) {
+        return type == null ? "Object" : type.getSimpleName();
+    }
+
+    /**
+     * the rows of a result set of metadata, each cell a {@code String}, {@code Integer}, {@code
+     * Short} or {@code Boolean}
+     */
+    private static final class Rows {
+        @NotNull
+        private final List<Column> columns = new ArrayList<>();
+        @NotNull
+        private final List<Object[]> rows = new ArrayList<>();
+
+        Rows(@NotNull String... names) {
+            for (@NotNull String name : names) {
+                columns.add(new Column(name, true, false, null, Object.class, false));
+            }
+        }
+
+        @NotNull
+        Rows add(@NotNull Object... cells) {
+            assert cells.length == columns.size();
+            rows.add(cells);
+            return this;
+        }
+
+        @NotNull
+        ResultSet resultSet() {
+            if (rows.isEmpty())
+                return new ChronicleColumnViewResultSet(Collections.emptyList(), columns);
+
+            @NotNull final PageBuffer.Builder page = PageBuffer.builder(columns, (Set<String>) null, rows.size());
+            for (@NotNull Object[] row : rows) {
+                page.add(row);
+            }
+            return new ChronicleColumnViewResultSet(Collections.singletonList(page.build()), columns);
+        }
+    }
+
+    // the connection
+
+    @NotNull
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection;
+    }
+
+    @Nullable
+    @Override
+    public String getURL() throws SQLException {
+        // the connection is given the tree, not the url it was reached by
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public String getUserName() throws SQLException {
+        return null;
+    }
+
+    @Override
+    public boolean isReadOnly() throws SQLException {
+        return true;
+    }
+
+    @NotNull
+    @Override
+    public String getDatabaseProductName() throws SQLException {
+        return "Chronicle Engine";
+    }
+
+    @Nullable
+    @Override
+    public String getDatabaseProductVersion() throws SQLException {
+        return ChronicleConnection.class.getPackage().getImplementationVersion();
+    }
+
+    @NotNull
+    @Override
+    public String getDriverName() throws SQLException {
+        return ChronicleDriver.class.getName();
+    }
+
+    @NotNull
+    @Override
+    public String getDriverVersion() throws SQLException {
+        return getDriverMajorVersion() + "." + getDriverMinorVersion();
+    }
+
+    @Override
+    public int getDriverMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getDriverMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public int getDatabaseMajorVersion() throws SQLException {
+        return 1;
+    }
+
+    @Override
+    public int getDatabaseMinorVersion() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public int getJDBCMajorVersion() throws SQLException {
+        return 4;
+    }
+
+    @Override
+    public int getJDBCMinorVersion() throws SQLException {
+        return 2;
+    }
+
+    // the names of things
+
+    @Override
+    public boolean usesLocalFiles() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean usesLocalFilePerTable() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsMixedCaseIdentifiers() throws SQLException {
+        return true;
+    }
+
+    @Override
+    public boolean storesUpperCaseIdentifiers() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean storesLowerCaseIdentifiers() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean storesMixedCaseIdentifiers() throws SQLException {
+        return true;
+    }
+
+    @Override
+    public boolean supportsMixedCaseQuotedIdentifiers() throws SQLException {
+        return true;
+    }
+
+    @Override
+    public boolean storesUpperCaseQuotedIdentifiers() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean storesLowerCaseQuotedIdentifiers() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean storesMixedCaseQuotedIdentifiers() throws SQLException {
+        return true;
+    }
+
+    @NotNull
+    @Override
+    public String getIdentifierQuoteString() throws SQLException {
+        return "\"";
+    }
+
+    @NotNull
+    @Override
+    public String getSQLKeywords() throws SQLException {
+        return "LIMIT,OFFSET";
+    }
+
+    @NotNull
+    @Override
+    public String getNumericFunctions() throws SQLException {
+        return "";
+    }
+
+    @NotNull
+    @Override
+    public String getStringFunctions() throws SQLException {
+        return "";
+    }
+
+    @NotNull
+    @Override
+    public String getSystemFunctions() throws SQLException {
+        return "";
+    }
+
+    @NotNull
+    @Override
+    public String getTimeDateFunctions() throws SQLException {
+        return "";
+    }
+
+    @NotNull
+    @Override
+    public String getSearchStringEscape() throws SQLException {
+        return "\\";
+    }
+
+    @NotNull
+    @Override
+    public String getExtraNameCharacters() throws SQLException {
+        return "/";
+    }
+
+    @NotNull
+    @Override
+    public String getSchemaTerm() throws SQLException {
+        return "schema";
+    }
+
+    @NotNull
+    @Override
+    public String getProcedureTerm() throws SQLException {
+        return "procedure";
+    }
+
+    @NotNull
+    @Override
+    public String getCatalogTerm() throws SQLException {
+        return "catalog";
+    }
+
+    @Override
+    public boolean isCatalogAtStart() throws SQLException {
+        return true;
+    }
+
+    @NotNull
+    @Override
+    public String getCatalogSeparator() throws SQLException {
+        return ".";
+    }
+
+    @Override
+    public boolean supportsSchemasInDataManipulation() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsSchemasInProcedureCalls() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsSchemasInTableDefinitions() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsSchemasInIndexDefinitions() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsSchemasInPrivilegeDefinitions() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsCatalogsInDataManipulation() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsCatalogsInProcedureCalls() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsCatalogsInTableDefinitions() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsCatalogsInIndexDefinitions() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsCatalogsInPrivilegeDefinitions() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public int getMaxBinaryLiteralLength() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public int getMaxCharLiteralLength() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public int getMaxColumnNameLength() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public int getMaxColumnsInGroupBy() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public int getMaxColumnsInIndex() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public int getMaxColumnsInOrderBy() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public int getMaxColumnsInSelect() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public int getMaxColumnsInTable() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public int getMaxConnections() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public int getMaxCursorNameLength() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public int getMaxIndexLength() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public int getMaxSchemaNameLength() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public int getMaxProcedureNameLength() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public int getMaxCatalogNameLength() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public int getMaxRowSize() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public boolean doesMaxRowSizeIncludeBlobs() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public int getMaxStatementLength() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public int getMaxStatements() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public int getMaxTableNameLength() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public int getMaxTablesInSelect() throws SQLException {
+        return 1;
+    }
+
+    @Override
+    public int getMaxUserNameLength() throws SQLException {
+        return 0;
+    }
+
+    // the SQL which is supported, a single table select with a where, order by and limit
+
+    @Override
+    public boolean allProceduresAreCallable() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean allTablesAreSelectable() throws SQLException {
+        return true;
+    }
+
+    @Override
+    public boolean nullsAreSortedHigh() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean nullsAreSortedLow() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean nullsAreSortedAtStart() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean nullsAreSortedAtEnd() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsAlterTableWithAddColumn() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsAlterTableWithDropColumn() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsColumnAliasing() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean nullPlusNonNullIsNull() throws SQLException {
+        return true;
+    }
+
+    @Override
+    public boolean supportsConvert() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsConvert(int fromType, int toType) throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsTableCorrelationNames() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsDifferentTableCorrelationNames() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsExpressionsInOrderBy() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsOrderByUnrelated() throws SQLException {
+        return true;
+    }
+
+    @Override
+    public boolean supportsGroupBy() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsGroupByUnrelated() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsGroupByBeyondSelect() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsLikeEscapeClause() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsMultipleResultSets() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsMultipleTransactions() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsNonNullableColumns() throws SQLException {
+        return true;
+    }
+
+    @Override
+    public boolean supportsMinimumSQLGrammar() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsCoreSQLGrammar() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsExtendedSQLGrammar() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsANSI92EntryLevelSQL() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsANSI92IntermediateSQL() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsANSI92FullSQL() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsIntegrityEnhancementFacility() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsOuterJoins() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsFullOuterJoins() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsLimitedOuterJoins() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsPositionedDelete() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsPositionedUpdate() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsSelectForUpdate() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsStoredProcedures() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsSubqueriesInComparisons() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsSubqueriesInExists() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsSubqueriesInIns() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsSubqueriesInQuantifieds() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsCorrelatedSubqueries() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsUnion() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsUnionAll() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsStoredFunctionsUsingCallSyntax() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean autoCommitFailureClosesAllResultSets() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean generatedKeyAlwaysReturned() throws SQLException {
+        return false;
+    }
+
+    // cursors, result sets and statements
+
+    @Override
+    public boolean supportsOpenCursorsAcrossCommit() throws SQLException {
+        return true;
+    }
+
+    @Override
+    public boolean supportsOpenCursorsAcrossRollback() throws SQLException {
+        return true;
+    }
+
+    @Override
+    public boolean supportsOpenStatementsAcrossCommit() throws SQLException {
+        return true;
+    }
+
+    @Override
+    public boolean supportsOpenStatementsAcrossRollback() throws SQLException {
+        return true;
+    }
+
+    @Override
+    public boolean supportsResultSetType(int type) throws SQLException {
+        return type != ResultSet.TYPE_SCROLL_SENSITIVE;
+    }
+
+    @Override
+    public boolean supportsResultSetConcurrency(int type, int concurrency) throws SQLException {
+        return supportsResultSetType(type) && concurrency == ResultSet.CONCUR_READ_ONLY;
+    }
+
+    @Override
+    public boolean ownUpdatesAreVisible(int type) throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean ownDeletesAreVisible(int type) throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean ownInsertsAreVisible(int type) throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean othersUpdatesAreVisible(int type) throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean othersDeletesAreVisible(int type) throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean othersInsertsAreVisible(int type) throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean updatesAreDetected(int type) throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean deletesAreDetected(int type) throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean insertsAreDetected(int type) throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsBatchUpdates() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsSavepoints() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsNamedParameters() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsMultipleOpenResults() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsGetGeneratedKeys() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsResultSetHoldability(int holdability) throws SQLException {
+        return holdability == ResultSet.HOLD_CURSORS_OVER_COMMIT;
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return ResultSet.HOLD_CURSORS_OVER_COMMIT;
+    }
+
+    @Override
+    public int getSQLStateType() throws SQLException {
+        return sqlStateSQL;
+    }
+
+    @Override
+    public boolean locatorsUpdateCopy() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsStatementPooling() throws SQLException {
+        return false;
+    }
+
+    @NotNull
+    @Override
+    public RowIdLifetime getRowIdLifetime() throws SQLException {
+        return RowIdLifetime.ROWID_UNSUPPORTED;
+    }
+
+    @Override
+    public long getMaxLogicalLobSize() throws SQLException {
+        return 0;
+    }
+
+    @Override
+    public boolean supportsRefCursors() throws SQLException {
+        return false;
+    }
+
+    // transactions, of which there are none
+
+    @Override
+    public int getDefaultTransactionIsolation() throws SQLException {
+        return Connection.TRANSACTION_NONE;
+    }
+
+    @Override
+    public boolean supportsTransactions() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsTransactionIsolationLevel(int level) throws SQLException {
+        return level == Connection.TRANSACTION_NONE;
+    }
+
+    @Override
+    public boolean supportsDataDefinitionAndDataManipulationTransactions() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean supportsDataManipulationTransactionsOnly() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean dataDefinitionCausesTransactionCommit() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public boolean dataDefinitionIgnoredInTransactions() throws SQLException {
+        return false;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this))
+            return iface.cast(this);
+        throw new SQLException("not a " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this);
+    }
+}
@@ -0,0 +1,79 @@
+package net.openhft.chronicle.engine.gui;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.*;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * A JDBC driver for the maps and queues of a remote engine, connecting to urls of the form {@code
+ * jdbc:chronicle://host:port}. The driver registers itself when it is loaded, and is listed in
+ * {@code META-INF/services/java.sql.Driver}.
+ * <p>
+ * Only the SELECT statements described by {@link SelectStatement} are supported, and the
+ * connection is read only.
+ */
+public class ChronicleDriver implements Driver {
+
+    static final String URL_PREFIX = "jdbc:chronicle:";
+
+    static {
+        try {
+            DriverManager.registerDriver(new ChronicleDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Nullable
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url))
+            return null;
+
+        String hostPort = url.substring(URL_PREFIX.length());
+        if (hostPort.startsWith("//"))
+            hostPort = hostPort.substring(2);
+        if (hostPort.isEmpty())
+            throw new SQLException("expected " + URL_PREFIX + "//host:port, not " + url);
+
+        try {
+            return new ChronicleConnection(EntryPoint.remote(hostPort), true);
+        } catch (Exception e) {
+            throw new SQLException("unable to connect to " + hostPort, e);
+        }
+    }
+
+    @Override
+    public boolean acceptsURL(@Nullable String url) throws SQLException {
+        return url != null && url.startsWith(URL_PREFIX);
+    }
+
+    @NotNull
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) throws SQLException {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException("the driver logs through slf4j");
+    }
+}
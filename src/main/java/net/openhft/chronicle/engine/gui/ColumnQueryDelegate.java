@@ -1,21 +1,26 @@
 package net.openhft.chronicle.engine.gui;
 
 import com.vaadin.data.Container;
-import com.vaadin.data.util.filter.SimpleStringFilter;
+import com.vaadin.data.util.filter.Compare;
+import com.vaadin.data.util.filter.UnsupportedFilterException;
 import com.vaadin.data.util.sqlcontainer.ColumnProperty;
 import com.vaadin.data.util.sqlcontainer.RowItem;
+import com.vaadin.data.util.sqlcontainer.TemporaryRowId;
 import com.vaadin.data.util.sqlcontainer.query.OrderBy;
 import com.vaadin.data.util.sqlcontainer.query.QueryDelegate;
+import net.openhft.chronicle.engine.api.column.ClosableIterator;
 import net.openhft.chronicle.engine.api.column.Column;
 import net.openhft.chronicle.engine.api.column.ColumnViewInternal;
 import net.openhft.chronicle.engine.api.column.Row;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.*;
 
 import static net.openhft.chronicle.engine.api.column.ColumnViewInternal.*;
 
@@ -24,34 +29,448 @@ import static net.openhft.chronicle.engine.api.column.ColumnViewInternal.*;
  */
 class ColumnQueryDelegate implements QueryDelegate {
 
+    /**
+     * the furthest a forward jump will be walked on the open cursor, rather than re-opening the
+     * iterator on the engine at the new offset
+     */
+    private static final int MAX_CURSOR_SKIP = 1024;
+
+    /**
+     * the number of rows read to estimate the row count, while the exact count runs in the
+     * background
+     */
+    private static final int PROBE_ROWS = 256;
+
+    /**
+     * the number of rows in each page read from the engine, the container's windows overlap, so
+     * are served from whole pages, which are cached and prefetched
+     */
+    static final int PAGE_ROWS = Integer.getInteger("chronicle.gui.page.rows", 100);
+
+    /**
+     * the number of pages either side of those just served, which are fetched in the background
+     * ready for the next scroll
+     */
+    static final int PREFETCH_DEPTH = Integer.getInteger("chronicle.gui.prefetch.depth", 2);
+
+    /**
+     * the number of rows read and removed in each batch when deleting every matching row
+     */
+    static final int DELETE_BATCH_ROWS = Integer.getInteger("chronicle.gui.delete.batchRows", 1_000);
+
+    /**
+     * when set, an edit sends the engine only the primary key and the cells which changed, rather
+     * than the whole row before and after. This is off unless set, as it relies on the engine's
+     * {@code changedRow} merging the cells sent into the row held, which not every view does.
+     */
+    static final boolean PARTIAL_UPDATES = Boolean.getBoolean("chronicle.gui.partialUpdates");
+
     @NotNull
     private final ColumnViewInternal columnView;
     @NotNull
-    private List<Container.Filter> filters = Collections.emptyList();
+    private volatile Query query = new Query(Collections.emptyList(), Collections.emptyList(), null);
+
+    /**
+     * the engine iterator left open by the last page, so that the next sequential page carries on
+     * from where it stopped rather than skipping {@code offset} rows on the engine again
+     */
+    @Nullable
+    private ClosableIterator<Row> cursor;
+    @Nullable
+    private Query cursorQuery;
+    private long cursorIndex = -1;
+    /**
+     * set when the view has changed, or been written to, since the cursor was opened, so that
+     * rows read before the change are not served from it
+     */
+    private volatile boolean cursorStale;
+
+    @NotNull
+    private final BackgroundTasks tasks;
     @NotNull
-    private List<OrderBy> orderBys = Collections.emptyList();
+    private final PageCache pageCache;
+    @NotNull
+    private final RowCounter rowCounter;
+    private final int prefetchDepth;
+
+    @NotNull
+    private final Map<PageCache.Key, CompletableFuture<PageBuffer>> prefetching = new ConcurrentHashMap<>();
+    @NotNull
+    private final List<Future<?>> prefetchTasks = new ArrayList<>();
+    @Nullable
+    private volatile Future<?> aggregating;
+
+    /**
+     * the changes held since {@link #beginTransaction()}, by primary key
+     */
+    @NotNull
+    private final Map<List<Object>, BatchWriter.Change> pending = new LinkedHashMap<>();
+    private boolean inTransaction;
+    /**
+     * set on the UI thread while {@link #patch(RowItem, Map)} sets the values read from the
+     * engine, so that they are not written back to it
+     */
+    private boolean patching;
+    @NotNull
+    private final BatchWriter batchWriter;
+    @NotNull
+    private final KeyChecker keyChecker;
 
     ColumnQueryDelegate(@NotNull ColumnViewInternal columnView) {
+        this(columnView, PageCache.DEFAULT_MAX_BYTES, PREFETCH_DEPTH);
+    }
+
+    /**
+     * @param columnView        the view to query
+     * @param pageCacheMaxBytes the approximate memory budget for the pages held in the page cache
+     * @param prefetchDepth     the number of pages either side of those served to fetch in the
+     *                          background, or 0 to not prefetch
+     */
+    ColumnQueryDelegate(@NotNull ColumnViewInternal columnView, long pageCacheMaxBytes, int prefetchDepth) {
         this.columnView = columnView;
+        this.tasks = BackgroundTasks.of(columnView);
+        this.pageCache = new PageCache(pageCacheMaxBytes);
+        this.rowCounter = new RowCounter(this::countRows, this::probeRows, tasks, RowCounter.ASYNC);
+        this.prefetchDepth = prefetchDepth;
+        this.batchWriter = new BatchWriter(columnView);
+        this.keyChecker = new KeyChecker(columnView);
+    }
+
+    /**
+     * called when the engine reports a change to the view, so that pages and counts taken before
+     * the change are not served again
+     */
+    void onChange() {
+        onRowsMoved();
+        keyChecker.onChange();
+    }
+
+    /**
+     * called when rows may have been added, removed or moved, but no key added other than those
+     * reported to {@link #onInserted(List)}, so that pages and counts taken before are not served
+     * again
+     */
+    void onRowsMoved() {
+        cursorStale = true;
+        pageCache.invalidate();
+        rowCounter.invalidate();
+    }
+
+    /**
+     * called when the engine reports the row with {@code key} was inserted
+     */
+    void onInserted(@NotNull List<Object> key) {
+        onRowsMoved();
+        keyChecker.inserted(key);
+    }
+
+    /**
+     * called when rows have changed, but not which rows match or their order, so that the pages
+     * held are read again while the row count is kept
+     */
+    void onRowsUpdated() {
+        cursorStale = true;
+        pageCache.invalidate();
+    }
+
+    /**
+     * closes the engine iterator held open between pages and stops any work running in the
+     * background, called once the grid is detached
+     */
+    void close() {
+        cancelPrefetch();
+        cancelAggregate();
+        rowCounter.cancelAll();
+        keyChecker.close();
+        closeCursor();
+    }
+
+    /**
+     * @param listener notified of the row count each time it is asked for, and again when an
+     *                 exact count completes in the background
+     */
+    void rowCountListener(@Nullable RowCounter.Listener listener) {
+        rowCounter.listener(listener);
     }
 
     @Override
     public int getCount() throws SQLException {
+        return rowCounter.count(query.filters);
+    }
 
-        if (filters.isEmpty() && orderBys.isEmpty())
-            return columnView.rowCount(new SortedFilter());
+    private int countRows(@NotNull List<Container.Filter> filters) {
+        return columnView.rowCount(unsorted(filters));
+    }
 
-        @NotNull final SortedFilter sortedFilter = new SortedFilter();
-        sortedFilter.marshableFilters = toMarshables(filters);
-        return columnView.rowCount(sortedFilter);
+    /**
+     * @return the number of rows matching the filters, counting no further than {@code
+     * PROBE_ROWS}
+     */
+    private int probeRows(@NotNull List<Container.Filter> filters) {
+        @NotNull final ClosableIterator<Row> iterator = TrackedIterator.open(columnView, unsorted(filters));
+        try {
+            int rows = 0;
+            while (rows < PROBE_ROWS && iterator.hasNext()) {
+                iterator.next();
+                rows++;
+            }
+            return rows;
+        } finally {
+            iterator.close();
+        }
     }
 
     @NotNull
     @Override
     public ResultSet getResults(int offset, int pageLength) throws SQLException {
-        return new ChronicleColumnViewResultSet(newIterator(offset), pageLength, columnView.columns());
+        final List<Column> columns = Schema.of(columnView).columns;
+        @NotNull final Query query = this.query;
+
+        if (pageLength <= 0)
+            return new ChronicleColumnViewResultSet(Collections.emptyList(), columns);
+
+        @NotNull final List<PageBuffer> rows = new ArrayList<>();
+        final int end = offset + pageLength;
+        final int firstPage = offset / PAGE_ROWS;
+        int lastPage = firstPage;
+        boolean more = true;
+
+        for (int page = firstPage; more && page * PAGE_ROWS < end; page++) {
+            @NotNull final PageBuffer pageRows = page(query, page, columns);
+            final int pageOffset = page * PAGE_ROWS;
+            final int from = Math.max(offset - pageOffset, 0);
+            final int to = Math.min(end - pageOffset, pageRows.rows());
+            if (from < to)
+                rows.add(pageRows.slice(from, to));
+            lastPage = page;
+            more = pageRows.rows() == PAGE_ROWS;
+        }
+
+        prefetch(query, firstPage, lastPage, more, columns);
+        return new ChronicleColumnViewResultSet(rows, columns);
     }
 
+    @NotNull
+    private PageBuffer page(@NotNull Query query, int page, @NotNull List<Column> columns) {
+        final int offset = page * PAGE_ROWS;
+        @NotNull final PageCache.Key key = query.key(offset, PAGE_ROWS);
+
+        PageBuffer rows = pageCache.get(key);
+        if (rows == null)
+            rows = awaitPrefetch(key);
+        if (rows == null)
+            rows = loadPage(query, key, offset, PAGE_ROWS, columns, true);
+        return rows;
+    }
+
+    @NotNull
+    private PageBuffer loadPage(@NotNull Query query,
+                                @NotNull PageCache.Key key,
+                                int offset,
+                                int pageLength,
+                                @NotNull List<Column> columns,
+                                boolean useCursor) {
+        final long modCount = pageCache.modCount();
+        final long countModCount = rowCounter.modCount();
+
+        @NotNull final PageBuffer rows = useCursor
+                ? fetchPage(query, offset, pageLength, columns)
+                : fetchPageOnce(query, offset, pageLength, columns);
+
+        pageCache.put(key, rows, modCount);
+        rowCounter.onPage(query.filters, offset, rows.rows(), pageLength, countModCount);
+        return rows;
+    }
+
+    /**
+     * reads up to {@code pageLength} rows starting at {@code offset}, continuing the open cursor
+     * when the page follows on from ( or is just ahead of ) the last one served
+     */
+    @NotNull
+    private synchronized PageBuffer fetchPage(@NotNull Query query,
+                                              int offset,
+                                              int pageLength,
+                                              @NotNull List<Column> columns) {
+        @NotNull final Iterator<Row> iterator = cursorAt(query, offset);
+        @NotNull final PageBuffer.Builder rows = PageBuffer.builder(columns, query.projection, pageLength);
+
+        while (!rows.isFull() && iterator.hasNext()) {
+            if (Thread.currentThread().isInterrupted()) {
+                closeCursor();
+                throw new CancellationException();
+            }
+            rows.add(iterator.next());
+            cursorIndex++;
+        }
+
+        if (!iterator.hasNext())
+            closeCursor();
+
+        return rows.build();
+    }
+
+    /**
+     * reads a page on an iterator of its own, leaving the cursor where it is
+     */
+    @NotNull
+    private PageBuffer fetchPageOnce(@NotNull Query query,
+                                     int offset,
+                                     int pageLength,
+                                     @NotNull List<Column> columns) {
+        @NotNull final ClosableIterator<Row> iterator = TrackedIterator.open(columnView, toQuery(offset, query));
+        try {
+            @NotNull final PageBuffer.Builder rows = PageBuffer.builder(columns, query.projection, pageLength);
+            while (!rows.isFull() && iterator.hasNext()) {
+                if (Thread.currentThread().isInterrupted())
+                    throw new CancellationException();
+                rows.add(iterator.next());
+            }
+            return rows.build();
+        } finally {
+            iterator.close();
+        }
+    }
+
+    @NotNull
+    private Iterator<Row> cursorAt(@NotNull Query query, int offset) {
+        if (cursorStale) {
+            cursorStale = false;
+            closeCursor();
+        }
+        final ClosableIterator<Row> cursor = this.cursor;
+
+        if (cursor != null && cursorQuery != null && query.sameRows(cursorQuery)
+                && offset >= cursorIndex && offset - cursorIndex <= MAX_CURSOR_SKIP) {
+            while (cursorIndex < offset && cursor.hasNext()) {
+                cursor.next();
+                cursorIndex++;
+            }
+            if (cursorIndex == offset)
+                return cursor;
+        }
+
+        closeCursor();
+        this.cursor = TrackedIterator.open(columnView, toQuery(offset, query));
+        cursorQuery = query;
+        cursorIndex = offset;
+        return this.cursor;
+    }
+
+    private synchronized void closeCursor() {
+        final ClosableIterator<Row> cursor = this.cursor;
+        if (cursor == null)
+            return;
+        this.cursor = null;
+        cursorQuery = null;
+        cursorIndex = -1;
+        cursor.close();
+    }
+
+    /**
+     * @return the page being prefetched for {@code key}, once it has been read, or {@code null} if
+     * it is not being prefetched or the prefetch failed
+     */
+    @Nullable
+    private PageBuffer awaitPrefetch(@NotNull PageCache.Key key) {
+        final CompletableFuture<PageBuffer> future = prefetching.get(key);
+        if (future == null)
+            return null;
+        // rather than wait for the view's other tasks to let the prefetch start
+        for (@NotNull Future<?> task : prefetchTasks) {
+            if (future.isDone())
+                break;
+            BackgroundTasks.runIfWaiting(task);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | CancellationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * fetches the pages after {@code lastPage} on the cursor, and those before {@code firstPage}
+     * on an iterator of their own, so neither run disturbs the other
+     *
+     * @param more {@code false} if {@code lastPage} was the end of the rows
+     */
+    private void prefetch(@NotNull Query query,
+                          int firstPage,
+                          int lastPage,
+                          boolean more,
+                          @NotNull List<Column> columns) {
+        if (prefetchDepth <= 0)
+            return;
+
+        @NotNull final List<Integer> ahead = new ArrayList<>();
+        @NotNull final List<Integer> behind = new ArrayList<>();
+        for (int i = 1; i <= prefetchDepth; i++) {
+            if (more)
+                ahead.add((lastPage + i) * PAGE_ROWS);
+            if (firstPage - i >= 0)
+                behind.add((firstPage - i) * PAGE_ROWS);
+        }
+
+        prefetchTasks.removeIf(Future::isDone);
+        prefetch(query, ahead, PAGE_ROWS, columns, true);
+        prefetch(query, behind, PAGE_ROWS, columns, false);
+    }
+
+    private void prefetch(@NotNull Query query,
+                          @NotNull List<Integer> offsets,
+                          int pageLength,
+                          @NotNull List<Column> columns,
+                          boolean useCursor) {
+        @NotNull final Map<Integer, CompletableFuture<PageBuffer>> pages = new LinkedHashMap<>();
+
+        for (int offset : offsets) {
+            @NotNull final PageCache.Key key = query.key(offset, pageLength);
+            if (pageCache.get(key) != null || prefetching.containsKey(key))
+                continue;
+            @NotNull final CompletableFuture<PageBuffer> future = new CompletableFuture<>();
+            prefetching.put(key, future);
+            pages.put(offset, future);
+        }
+
+        if (pages.isEmpty())
+            return;
+
+        prefetchTasks.add(tasks.submit(() -> {
+            for (@NotNull Map.Entry<Integer, CompletableFuture<PageBuffer>> e : pages.entrySet()) {
+                final int offset = e.getKey();
+                @NotNull final PageCache.Key key = query.key(offset, pageLength);
+                final CompletableFuture<PageBuffer> future = e.getValue();
+                try {
+                    if (future.isCancelled() || Thread.currentThread().isInterrupted())
+                        future.cancel(false);
+                    else
+                        future.complete(loadPage(query, key, offset, pageLength, columns, useCursor));
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                } finally {
+                    prefetching.remove(key, future);
+                }
+            }
+        }));
+    }
+
+    /**
+     * cancels the prefetches in flight, called when the filters or order change and the pages
+     * they are reading are no longer wanted
+     */
+    private void cancelPrefetch() {
+        for (@NotNull CompletableFuture<PageBuffer> future : prefetching.values()) {
+            future.cancel(false);
+        }
+        for (@NotNull Future<?> task : prefetchTasks) {
+            task.cancel(true);
+        }
+        prefetching.clear();
+        prefetchTasks.clear();
+    }
 
     @Override
     public boolean implementationRespectsPagingLimits() {
@@ -64,25 +483,40 @@ class ColumnQueryDelegate implements QueryDelegate {
         if (filters == null)
             filters = Collections.emptyList();
 
-        if (this.filters.equals(filters))
+        // the container changes its list of filters in place, so keep a copy to compare against
+        if (query.filters.equals(filters))
             return;
 
-        this.filters = filters;
-    }
+        // fail here, rather than on the next page or count, dropping a filter which fails from
+        // the container's list, as it would keep it and fail on every refresh after
+        UnsupportedFilterException failure = null;
+        for (Iterator<Container.Filter> it = filters.iterator(); it.hasNext(); ) {
+            try {
+                FilterTranslator.toMarshables(Collections.singletonList(it.next()));
+            } catch (UnsupportedFilterException e) {
+                if (failure == null)
+                    failure = e;
+                it.remove();
+            }
+        }
+        if (failure != null)
+            throw failure;
 
-    private Iterator<? extends Row> newIterator(int fromIndex) {
-        @NotNull SortedFilter sortedFilter = toQuery(fromIndex, filters);
-        return columnView.iterator(sortedFilter);
+        query = new Query(filters, query.orderBys, query.projection);
+        cancelPrefetch();
+        cancelAggregate();
+        rowCounter.cancelOthers(query.filters);
+        closeCursor();
     }
 
     @NotNull
-    private SortedFilter toQuery(int fromIndex, @NotNull List<Container.Filter> filters) {
+    private SortedFilter toQuery(long fromIndex, @NotNull Query query) {
         @NotNull final SortedFilter sortedFilter = new SortedFilter();
         sortedFilter.fromIndex = fromIndex;
         sortedFilter.marshableFilters.clear();
-        sortedFilter.marshableFilters.addAll(toMarshables(filters));
+        sortedFilter.marshableFilters.addAll(FilterTranslator.toMarshables(query.filters));
 
-        for (@NotNull OrderBy orderBy : orderBys) {
+        for (@NotNull OrderBy orderBy : query.orderBys) {
             sortedFilter.marshableOrderBy.add(toMarshables(orderBy));
         }
 
@@ -90,26 +524,177 @@ class ColumnQueryDelegate implements QueryDelegate {
     }
 
     /**
-     * converts a vaadin filter to a marshable filter
-     *
-     * @param filters the vaadin filter
-     * @return the marshable filter
+     * @return a pager over the rows matching the current filters, in the current order, which
+     * reads only the columns in the projection
      */
     @NotNull
-    private List<MarshableFilter> toMarshables(@NotNull List<Container.Filter>
-                                                       filters) {
-        @NotNull ArrayList<MarshableFilter> result = new ArrayList<>();
-        for (Container.Filter filter0 : filters) {
-            if (filter0 instanceof SimpleStringFilter) {
-                @NotNull SimpleStringFilter filter = (SimpleStringFilter) filter0;
-                result.add(new MarshableFilter(filter.getPropertyId().toString(),
-                        filter.getFilterString()));
+    ViewPager export(int pageRows) {
+        @NotNull final Query query = this.query;
+        @NotNull final List<Column> all = Schema.of(columnView).columns;
+
+        @NotNull final List<Column> columns = new ArrayList<>();
+        @NotNull final int[] source = new int[all.size()];
+        for (int i = 0; i < all.size(); i++) {
+            if (query.projection == null || query.projection.contains(all.get(i).name)) {
+                source[columns.size()] = i;
+                columns.add(all.get(i));
             }
         }
 
-        return result;
+        return new ViewPager(columnView, toQuery(0, query), columns, Arrays.copyOf(source, columns.size()),
+                pageRows);
     }
 
+    /**
+     * @param listener notified as the rows are written, and once the import has finished
+     * @return an import of rows into this view, which is begun with {@link Importer#start()}
+     */
+    @NotNull
+    Importer importer(@NotNull Importer.Listener listener) {
+        return new Importer(columnView, keyChecker, this::onChange, listener);
+    }
+
+    /**
+     * @param key the value of each primary key column
+     * @return every column of the row with {@code key}, read from the engine, or {@code null} if
+     * there is no such row
+     * @throws UnsupportedFilterException if the engine can not filter on the key
+     */
+    @Nullable
+    Map<String, Object> readRow(@NotNull List<Object> key) throws UnsupportedFilterException {
+        @NotNull final Schema schema = Schema.of(columnView);
+        @NotNull final int[] keyColumns = new int[key.size()];
+        @NotNull final List<Container.Filter> filters = new ArrayList<>(key.size());
+        for (int i = 0; i < key.size(); i++) {
+            keyColumns[i] = schema.indexOf(schema.primaryKeys.get(i));
+            filters.add(new Compare.Equal(schema.primaryKeys.get(i), key.get(i)));
+        }
+
+        // the rows the engine returns are checked for the key, in case it matches more loosely
+        @NotNull final ClosableIterator<Row> iterator = TrackedIterator.open(columnView, unsorted(filters));
+        try {
+            while (iterator.hasNext()) {
+                final Row row = iterator.next();
+                if (!hasKey(row, keyColumns, key))
+                    continue;
+                @NotNull final Map<String, Object> values = new HashMap<>();
+                for (int i = 0; i < schema.columns.size(); i++) {
+                    values.put(schema.columns.get(i).name, row.get(i));
+                }
+                return values;
+            }
+            return null;
+        } finally {
+            iterator.close();
+        }
+    }
+
+    private static boolean hasKey(@NotNull Row row, @NotNull int[] keyColumns, @NotNull List<Object> key) {
+        for (int i = 0; i < keyColumns.length; i++) {
+            if (!Objects.equals(row.get(keyColumns[i]), key.get(i)))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param key   the value of the primary key column of a map's row
+     * @param value the map's value for {@code key}, as given by the engine's event
+     * @return every column of the row, taken from {@code value} without asking the engine, or
+     * {@code null} if the columns are not the value itself or fields of it
+     */
+    @Nullable
+    Map<String, Object> rowOf(@NotNull List<Object> key, @Nullable Object value) {
+        @NotNull final Schema schema = Schema.of(columnView);
+        if (value == null || schema.primaryKeys.size() != 1 || key.size() != 1)
+            return null;
+
+        @NotNull final Map<String, Object> values = new HashMap<>();
+        values.put(schema.primaryKeys.get(0), key.get(0));
+        final int valueColumns = schema.columns.size() - 1;
+        for (@NotNull Column column : schema.columns) {
+            if (column.primaryKey)
+                continue;
+            if (valueColumns == 1 && isOfType(column, value)) {
+                values.put(column.name, value);
+                continue;
+            }
+
+            final Field field = field(value.getClass(), column.name);
+            if (field == null)
+                return null;
+            try {
+                final Object cell = field.get(value);
+                if (cell != null && !isOfType(column, cell))
+                    return null;
+                values.put(column.name, cell);
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+        }
+        return values;
+    }
+
+    private static boolean isOfType(@NotNull Column column, @NotNull Object value) {
+        return column.type == null || column.type.isPrimitive() || column.type.isInstance(value);
+    }
+
+    @Nullable
+    private static Field field(@NotNull Class<?> type, @NotNull String name) {
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            try {
+                @NotNull final Field field = c.getDeclaredField(name);
+                if (Modifier.isStatic(field.getModifiers()))
+                    return null;
+                field.setAccessible(true);
+                return field;
+            } catch (NoSuchFieldException ignored) {
+                // look in the super class
+            } catch (RuntimeException e) {
+                // the field can not be made accessible
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * sets the cells of a row the grid holds to the values read from the engine, without writing
+     * them back to it
+     *
+     * @return {@code false} if the row can not be patched in place, as a changed cell is read
+     * only, or the grid is filtered or sorted on it and so the row may have moved
+     */
+    boolean patch(@NotNull RowItem item, @NotNull Map<String, Object> values) {
+        @NotNull final Query query = this.query;
+        patching = true;
+        try {
+            for (Object id : item.getItemPropertyIds()) {
+                if (!values.containsKey(id))
+                    continue;
+                final Object value = values.get(id);
+                @NotNull final ColumnProperty cp = (ColumnProperty) item.getItemProperty(id);
+                if (Objects.equals(cp.getValue(), value))
+                    continue;
+                if (cp.isReadOnly() || query.isOn(id.toString())
+                        || value != null && !cp.getType().isInstance(value))
+                    return false;
+                cp.setValue(value);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        } finally {
+            patching = false;
+        }
+    }
+
+    @NotNull
+    private SortedFilter unsorted(@NotNull List<Container.Filter> filters) {
+        @NotNull final SortedFilter sortedFilter = new SortedFilter();
+        sortedFilter.marshableFilters = FilterTranslator.toMarshables(filters);
+        return sortedFilter;
+    }
 
     @NotNull
     private MarshableOrderBy toMarshables(@NotNull OrderBy orderBy) {
@@ -118,23 +703,55 @@ class ColumnQueryDelegate implements QueryDelegate {
 
     @Override
     public void setOrderBy(@Nullable List<OrderBy> orderBys) throws UnsupportedOperationException {
-        @Nullable final List<OrderBy> orderBys0 = (orderBys == null) ? Collections.EMPTY_LIST : orderBys;
+        @NotNull final List<OrderBy> orderBys0 = (orderBys == null) ? Collections.emptyList() : orderBys;
 
-        if (orderBys0 == null) {
-            this.orderBys = Collections.emptyList();
+        @NotNull final Query query = new Query(this.query.filters, orderBys0, this.query.projection);
+        if (query.equals(this.query))
             return;
+
+        this.query = query;
+        cancelPrefetch();
+        closeCursor();
+    }
+
+    /**
+     * limits the cells read into each page to those the grid shows, the primary key columns are
+     * always kept, so that rows can still be identified
+     *
+     * @param visible the names of the columns shown, or {@code null} for all of them
+     * @return {@code true} if the projection changed, and the container should be refreshed
+     */
+    boolean setProjection(@Nullable Collection<String> visible) {
+        @Nullable Set<String> projection = null;
+
+        if (visible != null) {
+            projection = new HashSet<>();
+            final List<Column> columns = Schema.of(columnView).columns;
+            for (@NotNull Column c : columns) {
+                if (c.primaryKey || visible.contains(c.name))
+                    projection.add(c.name);
+            }
+            if (projection.size() == columns.size())
+                projection = null;
         }
 
-        if (orderBys0.equals(this.orderBys))
-            return;
+        if (Objects.equals(projection, query.projection))
+            return false;
 
-        this.orderBys = orderBys0;
+        // the cursor reads the same rows, so it is left open
+        query = new Query(query.filters, query.orderBys, projection);
+        cancelPrefetch();
+        return true;
     }
 
     /**
      * Stores a row in the database. The implementation of this interface
      * decides how to identify whether to store a new row or update an existing
      * one.
+     * <p>
+     * With {@code PARTIAL_UPDATES} an edit sends only the primary key and the cells which
+     * changed, a new row, or one whose key was edited, is sent in full. The cells of a whole row
+     * in the columns the grid hides are not read into its pages, so are read from the engine.
      *
      * @param row A map containing the values for all columns to be stored or updated.
      * @return the number of affected rows in the database table
@@ -142,57 +759,429 @@ class ColumnQueryDelegate implements QueryDelegate {
      */
     @Override
     public int storeRow(@NotNull RowItem row) throws UnsupportedOperationException, SQLException {
+        if (patching) {
+            row.commit();
+            return 1;
+        }
+
+        @NotNull final Schema schema = Schema.of(columnView);
+        final boolean wholeRow = !PARTIAL_UPDATES || row.getId() instanceof TemporaryRowId || keyModified(row, schema);
 
         @NotNull final Map<String, Object> oldRow = new HashMap<>();
         @NotNull final Map<String, Object> newRow = new HashMap<>();
+        @Nullable final Map<String, Object> hidden = wholeRow && !(row.getId() instanceof TemporaryRowId)
+                ? hiddenCells(row, schema) : null;
 
-        for (@NotNull Column c : columnView.columns()) {
-            @NotNull final ColumnProperty cp = (ColumnProperty) row.getItemProperty(c.name);
+        for (@NotNull Column c : schema.columns) {
+            if (hidden != null && hidden.containsKey(c.name)) {
+                newRow.put(c.name, hidden.get(c.name));
+                oldRow.put(c.name, hidden.get(c.name));
+                continue;
+            }
+            @Nullable final ColumnProperty cp = (ColumnProperty) row.getItemProperty(c.name);
+            if (cp == null || !(wholeRow || c.primaryKey || cp.isModified()))
+                continue;
             newRow.put(c.name, cp.getValue());
             oldRow.put(c.name, cp.getOldValue());
         }
 
-        return columnView.changedRow(newRow, oldRow);
+        if (!wholeRow && newRow.size() == schema.primaryKeys.size())
+            // nothing but the key, so there is nothing to change
+            return 1;
+
+        return changedRow(newRow, oldRow);
+    }
+
+    private static boolean keyModified(@NotNull RowItem row, @NotNull Schema schema) {
+        for (@NotNull String name : schema.primaryKeys) {
+            @Nullable final ColumnProperty cp = (ColumnProperty) row.getItemProperty(name);
+            if (cp != null && cp.isModified())
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the cells of {@code row} in the columns left out of the pages read, as the engine
+     * holds them, so that a whole row can be written back, or {@code null} if no columns are left
+     * out
+     * @throws SQLException if the row is no longer held
+     */
+    @Nullable
+    private Map<String, Object> hiddenCells(@NotNull RowItem row, @NotNull Schema schema) throws SQLException {
+        @Nullable final Set<String> projection = query.projection;
+        if (projection == null)
+            return null;
+
+        @NotNull final List<Object> key = new ArrayList<>(schema.primaryKeys.size());
+        for (@NotNull String name : schema.primaryKeys) {
+            @Nullable final ColumnProperty cp = (ColumnProperty) row.getItemProperty(name);
+            key.add(cp == null ? null : cp.getOldValue());
+        }
+
+        @Nullable final Map<String, Object> held;
+        try {
+            held = readRow(key);
+        } catch (UnsupportedFilterException e) {
+            throw new SQLException("the columns the grid hides of the row " + key + " can not be read, "
+                    + "show every column to edit it", e);
+        }
+        if (held == null)
+            throw new SQLException("the row " + key + " has been removed, refresh to see the latest rows");
+        held.keySet().removeAll(projection);
+        return held;
     }
 
+    /**
+     * with {@code PARTIAL_UPDATES} only the primary key of the row is sent
+     */
     @Override
     public boolean removeRow(@NotNull RowItem row) throws UnsupportedOperationException, SQLException {
-
+        @NotNull final Schema schema = Schema.of(columnView);
         @NotNull final Map<String, Object> oldRow = new HashMap<>();
+        @Nullable final Map<String, Object> hidden = PARTIAL_UPDATES ? null : hiddenCells(row, schema);
 
-        for (@NotNull Column c : columnView.columns()) {
-            @NotNull final ColumnProperty cp = (ColumnProperty) row.getItemProperty(c.name);
-            oldRow.put(c.name, cp.getOldValue());
+        for (@NotNull Column c : schema.columns) {
+            @Nullable final ColumnProperty cp = (ColumnProperty) row.getItemProperty(c.name);
+            if (hidden != null && hidden.containsKey(c.name))
+                oldRow.put(c.name, hidden.get(c.name));
+            else if (cp != null && (c.primaryKey || !PARTIAL_UPDATES))
+                oldRow.put(c.name, cp.getOldValue());
+        }
+
+        return changedRow(Collections.emptyMap(), oldRow) == 1;
+    }
+
+    /**
+     * within a transaction the change is held until {@link #commit()}, where changes to the same
+     * row are merged into one
+     */
+    private int changedRow(@NotNull Map<String, Object> newRow, @NotNull Map<String, Object> oldRow) {
+        synchronized (pending) {
+            if (inTransaction) {
+                @NotNull final List<Object> key = keyOf(newRow.isEmpty() ? oldRow : newRow);
+                final BatchWriter.Change previous = pending.remove(key);
+
+                if (previous == null)
+                    pending.put(key, new BatchWriter.Change(newRow, oldRow));
+
+                else if (!newRow.isEmpty() && !previous.newRow.isEmpty()) {
+                    // two edits of the same row, the cells of the later win, and the old values
+                    // are those from before the first
+                    @NotNull final Map<String, Object> mergedNew = new HashMap<>(previous.newRow);
+                    mergedNew.putAll(newRow);
+                    @NotNull final Map<String, Object> mergedOld = new HashMap<>(oldRow);
+                    mergedOld.putAll(previous.oldRow);
+                    pending.put(key, new BatchWriter.Change(mergedNew, mergedOld));
+
+                } else if (!newRow.isEmpty() || !previous.oldRow.isEmpty())
+                    // a row added then removed in the same transaction is never sent
+                    pending.put(key, new BatchWriter.Change(newRow, previous.oldRow));
+
+                return 1;
+            }
+        }
+        if (!newRow.isEmpty())
+            keyChecker.added(keyOf(newRow));
+        final int changed = columnView.changedRow(newRow, oldRow);
+        cursorStale = true;
+        return changed;
+    }
+
+    /**
+     * notified once {@link #countMatching(CountListener)} has counted the rows
+     */
+    @FunctionalInterface
+    interface CountListener {
+        /**
+         * @param filters the filters counted
+         * @param rows    the number of rows matching them
+         * @param failure the reason the count failed, or {@code null}
+         */
+        void onCount(@NotNull List<Container.Filter> filters, int rows, @Nullable Throwable failure);
+    }
+
+    /**
+     * counts the rows matching the current filters in the background
+     */
+    void countMatching(@NotNull CountListener listener) {
+        @NotNull final List<Container.Filter> filters = query.filters;
+        tasks.submit(() -> {
+            final int rows;
+            try {
+                rows = countRows(filters);
+            } catch (Exception e) {
+                listener.onCount(filters, 0, e);
+                return;
+            }
+            listener.onCount(filters, rows, null);
+        });
+    }
+
+    /**
+     * notified as rows are removed by {@link #deleteMatching(List, int, DeleteListener)}
+     */
+    @FunctionalInterface
+    interface DeleteListener {
+        /**
+         * @param deleted the number of rows removed so far
+         * @param done    {@code true} once the last batch is removed, the delete is cancelled or
+         *                fails
+         * @param failure the reason the delete stopped early, or {@code null}
+         */
+        void onProgress(long deleted, boolean done, @Nullable Throwable failure);
+    }
+
+    /**
+     * removes the rows matching {@code filters} in the background, in batches of {@code
+     * DELETE_BATCH_ROWS}, cancel the returned future to stop after the batch in flight
+     *
+     * @param filters the filters counted by {@link #countMatching(CountListener)}
+     * @param maxRows the number of rows they matched, no more rows than this are removed, even if
+     *                more have been added since
+     */
+    @NotNull
+    Future<?> deleteMatching(@NotNull List<Container.Filter> filters, int maxRows, @NotNull DeleteListener listener) {
+        return tasks.submit(() -> {
+            long deleted = 0;
+            Throwable failure = null;
+            try {
+                @NotNull final List<Column> columns = Schema.of(columnView).columns;
+                for (int read = 0; read < maxRows; ) {
+                    // the rows removed drop out of the view, so each batch is read from the start
+                    @NotNull final List<BatchWriter.Change> batch = readBatch(filters, columns,
+                            Math.min(DELETE_BATCH_ROWS, maxRows - read));
+                    if (batch.isEmpty() || Thread.currentThread().isInterrupted())
+                        break;
+                    read += batch.size();
+                    deleted += batchWriter.write(batch);
+                    listener.onProgress(deleted, false, null);
+                }
+            } catch (Exception e) {
+                if (!Thread.currentThread().isInterrupted())
+                    failure = e;
+            } finally {
+                onChange();
+                listener.onProgress(deleted, true, failure);
+            }
+        });
+    }
+
+    /**
+     * notified once {@link #aggregate(String, AggregateListener)} has read every matching row
+     */
+    @FunctionalInterface
+    interface AggregateListener {
+        /**
+         * @param aggregates the stats of the rows, or {@code null} if the scan failed
+         * @param failure    the reason the scan failed, or {@code null}
+         */
+        void onAggregates(@Nullable Aggregates aggregates, @Nullable Throwable failure);
+    }
+
+    /**
+     * gathers the stats of every row matching the current filters in the background, in one pass
+     * over the rows, replacing any scan still running. The scan is cancelled if the filters change.
+     * <p>
+     * The engine has no aggregates of its own, so the rows are streamed to the GUI and summed
+     * here, without holding more than one row at a time, and no more than {@link
+     * Aggregates#MAX_ROWS} of them.
+     *
+     * @param groupBy the column to also gather the stats of each value of, or {@code null}
+     */
+    @NotNull
+    Future<?> aggregate(@Nullable String groupBy, @NotNull AggregateListener listener) {
+        @NotNull final List<Container.Filter> filters = query.filters;
+        cancelAggregate();
+
+        final Future<?> future = tasks.submit(() -> {
+            @NotNull final Schema schema = Schema.of(columnView);
+            @NotNull final Aggregates aggregates = new Aggregates(schema.columns,
+                    groupBy == null ? -1 : schema.indexOf(groupBy));
+            @NotNull final ClosableIterator<Row> iterator = TrackedIterator.open(columnView, unsorted(filters));
+            try {
+                while (iterator.hasNext()) {
+                    if (Thread.currentThread().isInterrupted())
+                        return;
+                    if (aggregates.total().rows() >= Aggregates.MAX_ROWS) {
+                        aggregates.partial();
+                        break;
+                    }
+                    aggregates.add(iterator.next());
+                }
+            } catch (Exception e) {
+                if (!Thread.currentThread().isInterrupted())
+                    listener.onAggregates(null, e);
+                return;
+            } finally {
+                iterator.close();
+            }
+            listener.onAggregates(aggregates, null);
+        });
+        aggregating = future;
+        return future;
+    }
+
+    private void cancelAggregate() {
+        final Future<?> future = aggregating;
+        if (future != null) {
+            future.cancel(true);
+            aggregating = null;
         }
+    }
+
+    @NotNull
+    private List<BatchWriter.Change> readBatch(@NotNull List<Container.Filter> filters,
+                                               @NotNull List<Column> columns,
+                                               int maxRows) {
+        @NotNull final List<BatchWriter.Change> batch = new ArrayList<>();
+        @NotNull final ClosableIterator<Row> iterator = TrackedIterator.open(columnView, unsorted(filters));
+        try {
+            while (batch.size() < maxRows && iterator.hasNext()) {
+                @NotNull final Row row = iterator.next();
+                @NotNull final Map<String, Object> oldRow = new HashMap<>();
+                for (int i = 0; i < columns.size(); i++) {
+                    oldRow.put(columns.get(i).name, row.get(i));
+                }
+                batch.add(new BatchWriter.Change(Collections.emptyMap(), oldRow));
+            }
+        } finally {
+            iterator.close();
+        }
+        return batch;
+    }
 
-        return columnView.changedRow(Collections.emptyMap(), oldRow) == 1;
+    @NotNull
+    private List<Object> keyOf(@NotNull Map<String, Object> row) {
+        @NotNull final List<Object> key = new ArrayList<>();
+        for (@NotNull String name : getPrimaryKeyColumns())
+            key.add(row.get(name));
+        return key;
     }
 
     @Override
     public void beginTransaction() throws SQLException {
-
+        synchronized (pending) {
+            pending.clear();
+            inTransaction = true;
+        }
     }
 
+    /**
+     * sends the changes held since {@link #beginTransaction()} to the engine as one batch
+     */
     @Override
     public void commit() throws SQLException {
+        @NotNull final List<BatchWriter.Change> changes;
+        synchronized (pending) {
+            inTransaction = false;
+            if (pending.isEmpty())
+                return;
+            changes = new ArrayList<>(pending.values());
+            pending.clear();
+        }
 
+        for (@NotNull BatchWriter.Change change : changes) {
+            if (!change.newRow.isEmpty())
+                keyChecker.added(keyOf(change.newRow));
+        }
+
+        try {
+            batchWriter.write(changes);
+        } finally {
+            onChange();
+        }
     }
 
     @Override
     public void rollback() throws SQLException {
-
+        synchronized (pending) {
+            inTransaction = false;
+            pending.clear();
+        }
     }
 
     @Override
     public List<String> getPrimaryKeyColumns() {
-        return columnView.columns().stream()
-                .filter(c -> c.primaryKey).map(c -> c.name)
-                .collect(Collectors.toList());
+        return Schema.of(columnView).primaryKeys;
     }
 
     public boolean containsRowWithKey(@NotNull Object... keys) throws SQLException {
         if (keys.length == 0)
             return false;
-        return columnView.containsRowWithKey(Arrays.asList(keys));
+        return keyChecker.contains(Arrays.asList(keys));
+    }
+
+    /**
+     * a snapshot of the filters, order and projection the container last asked for, as pages are
+     * also read in the background
+     */
+    private static final class Query {
+        @NotNull
+        final List<Container.Filter> filters;
+        @NotNull
+        final List<OrderBy> orderBys;
+        @Nullable
+        final Set<String> projection;
+        @NotNull
+        private final List<String> orderByKey;
+
+        Query(@NotNull List<Container.Filter> filters,
+              @NotNull List<OrderBy> orderBys,
+              @Nullable Set<String> projection) {
+            this.filters = Collections.unmodifiableList(new ArrayList<>(filters));
+            this.orderBys = Collections.unmodifiableList(new ArrayList<>(orderBys));
+            this.projection = projection == null ? null : Collections.unmodifiableSet(new HashSet<>(projection));
+
+            // OrderBy does not implement equals()
+            @NotNull final List<String> orderByKey = new ArrayList<>(orderBys.size());
+            for (@NotNull OrderBy orderBy : orderBys) {
+                orderByKey.add((orderBy.isAscending() ? "+" : "-") + orderBy.getColumn());
+            }
+            this.orderByKey = orderByKey;
+        }
+
+        /**
+         * @return {@code true} if the rows are filtered or sorted on {@code column}
+         */
+        boolean isOn(@NotNull String column) {
+            for (@NotNull Container.Filter filter : filters) {
+                if (filter.appliesToProperty(column))
+                    return true;
+            }
+            for (@NotNull OrderBy orderBy : orderBys) {
+                if (orderBy.getColumn().equals(column))
+                    return true;
+            }
+            return false;
+        }
+
+        @NotNull
+        PageCache.Key key(int offset, int pageLength) {
+            return new PageCache.Key(filters, orderByKey, projection, offset, pageLength);
+        }
+
+        /**
+         * @return {@code true} if {@code query} reads the same rows in the same order, even if it
+         * keeps different cells of them
+         */
+        boolean sameRows(@NotNull Query query) {
+            return filters.equals(query.filters) && orderByKey.equals(query.orderByKey);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Query))
+                return false;
+            @NotNull final Query query = (Query) o;
+            return sameRows(query) && Objects.equals(projection, query.projection);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(filters, orderByKey, projection);
+        }
     }
 }
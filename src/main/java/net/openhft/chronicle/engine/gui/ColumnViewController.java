@@ -6,14 +6,17 @@ import com.vaadin.data.util.GeneratedPropertyContainer;
 import com.vaadin.data.util.PropertyValueGenerator;
 import com.vaadin.data.util.converter.Converter;
 import com.vaadin.data.util.filter.SimpleStringFilter;
+import com.vaadin.data.util.filter.UnsupportedFilterException;
 import com.vaadin.data.util.sqlcontainer.SQLContainer;
 import com.vaadin.data.util.sqlcontainer.query.QueryDelegate;
 import com.vaadin.event.FieldEvents;
+import com.vaadin.server.FileDownloader;
 import com.vaadin.server.Resource;
 import com.vaadin.server.Sizeable;
 import com.vaadin.server.ThemeResource;
 import com.vaadin.ui.Button.ClickListener;
 import com.vaadin.ui.Grid;
+import com.vaadin.ui.Notification;
 import com.vaadin.ui.TextField;
 import com.vaadin.ui.UI;
 import com.vaadin.ui.renderers.ImageRenderer;
@@ -22,7 +25,18 @@ import com.vaadin.ui.renderers.TextRenderer;
 import net.openhft.chronicle.core.Jvm;
 import net.openhft.chronicle.engine.api.column.Column;
 import net.openhft.chronicle.engine.api.column.ColumnViewInternal;
+import net.openhft.chronicle.engine.api.column.MapColumnView;
+import net.openhft.chronicle.engine.api.column.QueueColumnView;
+import net.openhft.chronicle.engine.api.map.MapEvent;
+import net.openhft.chronicle.engine.api.pubsub.Subscriber;
+import net.openhft.chronicle.engine.api.pubsub.SubscriptionCollection;
+import net.openhft.chronicle.engine.api.tree.AssetTree;
+import net.openhft.chronicle.engine.api.tree.RequestContext;
+import net.openhft.chronicle.engine.map.InsertedEvent;
 import net.openhft.chronicle.engine.map.ObjectSubscription;
+import net.openhft.chronicle.engine.map.RemovedEvent;
+import net.openhft.chronicle.engine.map.UpdatedEvent;
+import net.openhft.chronicle.engine.query.Filter;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -32,9 +46,8 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicLong;
 
-import static com.vaadin.ui.AbstractTextField.TextChangeEventMode.EAGER;
+import static com.vaadin.ui.AbstractTextField.TextChangeEventMode.LAZY;
 import static com.vaadin.ui.Grid.HeaderCell;
 import static com.vaadin.ui.Grid.HeaderRow;
 
@@ -43,6 +56,17 @@ import static com.vaadin.ui.Grid.HeaderRow;
  */
 class ColumnViewController<K, V> {
 
+    /**
+     * how long typing in a filter field must pause before the grid is filtered
+     */
+    static final int FILTER_DELAY_MS = Integer.getInteger("chronicle.gui.filter.delayMs", 400);
+
+    /**
+     * when set, grid edits and deletes are held until they are saved, and then sent to the engine
+     * as one batch
+     */
+    static final boolean BUFFERED_EDITS = Boolean.getBoolean("chronicle.gui.bufferedEdits");
+
     @NotNull
     private final ColumnViewInternal columnView;
     @NotNull
@@ -51,13 +75,28 @@ class ColumnViewController<K, V> {
     @NotNull
     private final DecimalFormat removeFormatting;
 
+    /**
+     * the tree the view is in, to subscribe to the changes to its rows by key, or {@code null} to
+     * only be told that it has changed
+     */
+    @Nullable
+    private final AssetTree assetTree;
+    private final String path;
+
     ColumnViewController(@NotNull ColumnViewInternal columnView, @NotNull MapViewUI view, String path) {
+        this(columnView, view, path, null);
+    }
+
+    ColumnViewController(@NotNull ColumnViewInternal columnView, @NotNull MapViewUI view, String path,
+                         @Nullable AssetTree assetTree) {
         this.columnView = columnView;
         this.view = view;
+        this.path = path;
+        this.assetTree = assetTree;
 
 
         view.path.setValue(path);
-        view.recordCount.setValue(Long.toString(columnView.rowCount(new ColumnViewInternal.SortedFilter())));
+        view.recordCount.setValue("counting\u2026");
 
         final ObjectSubscription objectSubscription = columnView.objectSubscription();
         onChange(view, objectSubscription);
@@ -88,12 +127,19 @@ class ColumnViewController<K, V> {
             if (first.isPresent())
                 filterable.removeContainerFilter(first.get());
 
-            // (Re)create the filter if necessary
+            // (Re)create the filter if necessary, if the engine can filter on it, as the
+            // container would keep a filter it can not and fail on each refresh
             if (!change.getText().isEmpty()) {
-                filterable.addContainerFilter(
-                        new SimpleStringFilter(pid, change.getText(), true, false));
-
+                @NotNull final SimpleStringFilter filter = new SimpleStringFilter(pid, change.getText(), true, false);
+                try {
+                    FilterTranslator.toMarshables(Collections.singletonList(filter));
+                    filterable.addContainerFilter(filter);
+                } catch (UnsupportedFilterException e) {
+                    Notification.show("Filter not applied", e.getMessage(), Notification.Type.WARNING_MESSAGE);
+                }
             }
+
+            onFiltersChanged();
         }
     }
 
@@ -141,13 +187,32 @@ class ColumnViewController<K, V> {
         view.keyStoreValue.setValue(objectSubscription.getClass().getSimpleName());*/
     }
 
-    private final AtomicLong refreshUI = new AtomicLong();
+    /**
+     * {@code true} while the container holds an estimated row count, so it is refreshed once the
+     * exact count arrives
+     */
+    private boolean countEstimated;
 
+    @Nullable
+    private Summary summary;
+
+    /**
+     * the fields of the grid's filter row, disabled while following a queue, as the excerpts
+     * followed are not filtered
+     */
+    @NotNull
+    private final List<TextField> filterFields = new ArrayList<>();
 
     void init() {
         view.gridHolder.removeAllComponents();
+        filterFields.clear();
+
+        @NotNull final ColumnQueryDelegate queryDelegate = new ColumnQueryDelegate(columnView);
+        @NotNull final Container.Indexed data = createContainer(queryDelegate);
 
-        @NotNull final Container.Indexed data = createContainer(new ColumnQueryDelegate(columnView));
+        final UI ui = UI.getCurrent();
+        queryDelegate.rowCountListener((rows, counting) ->
+                ui.access(() -> onRowCount((SQLContainer) data, rows, counting)));
         @NotNull final GeneratedPropertyContainer generatedPropertyContainer = addDeleteButton(data);
         @NotNull final Grid grid = new Grid(generatedPropertyContainer);
 
@@ -155,12 +220,13 @@ class ColumnViewController<K, V> {
         grid.setHeight(100, Sizeable.Unit.PERCENTAGE);
         grid.removeAllColumns();
 
-        final List<Column> columns = columnView.columns();
+        final List<Column> columns = Schema.of(columnView).columns;
 
         for (@NotNull Column column : columns) {
             final Grid.Column gridColumn = grid.addColumn(column.name);
             gridColumn.setSortable(column.sortable);
             gridColumn.setEditable(!column.isReadOnly());
+            gridColumn.setHidable(true);
 
             if (column.type != null && (Number.class.isAssignableFrom(column.type) || Boolean.class.isAssignableFrom
                     (column.type))) {
@@ -204,20 +270,56 @@ class ColumnViewController<K, V> {
 
         grid.setSizeFull();
 
+        grid.addDetachListener(e -> queryDelegate.close());
+
+        grid.addColumnVisibilityChangeListener(e -> onColumnVisibilityChange(grid, queryDelegate,
+                (SQLContainer) data));
+
         view.addButton.addClickListener((ClickListener) event -> new AddRow(columnView).init());
 
+        summary = new Summary(grid);
+        view.groupBy.removeAllItems();
+        for (@NotNull Column column : columns) {
+            view.groupBy.addItem(column.name);
+        }
+        view.summariseButton.addClickListener((ClickListener) event -> summarise(queryDelegate));
+
+        final String name = exportName(view.path.getValue());
+        new FileDownloader(Exporter.resource(queryDelegate, name, Exporter.Format.CSV))
+                .extend(view.exportCsvButton);
+        new FileDownloader(Exporter.resource(queryDelegate, name, Exporter.Format.COLUMNAR))
+                .extend(view.exportColumnarButton);
 
-        columnView.registerChangeListener(() -> {
-            refreshUI.compareAndSet(0, System.currentTimeMillis());
-        });
+        view.importButton.addClickListener((ClickListener) event ->
+                new ImportRows(queryDelegate, ((SQLContainer) data)::refresh).init());
 
-        UI.getCurrent().addPollListener(e -> {
-            if (grid.isVisible())
-                refreshUI((SQLContainer) data);
-        });
+        view.deleteMatchingButton.setVisible(columnView.canDeleteRows());
+        view.deleteMatchingButton.addClickListener((ClickListener) event ->
+                new DeleteMatching(queryDelegate, ((SQLContainer) data)::refresh).init());
+
+
+        @NotNull final RowPatcher rowPatcher = new RowPatcher(RefreshScheduler.of(ui), grid,
+                (SQLContainer) data, queryDelegate);
+        if (!subscribeToRows(grid, queryDelegate, rowPatcher)) {
+            ChangeListeners.addWhileAttached(columnView, grid, () -> {
+                queryDelegate.onChange();
+                rowPatcher.onChange();
+            });
+        }
+
+        view.saveButton.setVisible(false);
+        view.discardButton.setVisible(false);
 
         if (data instanceof SQLContainer) {
-            ((SQLContainer) data).setAutoCommit(true);
+            @NotNull final SQLContainer container = (SQLContainer) data;
+            container.setAutoCommit(!BUFFERED_EDITS);
+
+            if (BUFFERED_EDITS) {
+                view.saveButton.setVisible(true);
+                view.discardButton.setVisible(true);
+                view.saveButton.addClickListener((ClickListener) event -> save(container));
+                view.discardButton.addClickListener((ClickListener) event -> discard(container));
+            }
         }
 
 
@@ -244,6 +346,19 @@ class ColumnViewController<K, V> {
         view.gridHolder.addComponent(grid);
         grid.setHeight(100, Sizeable.Unit.PERCENTAGE);
 
+        @Nullable final QueueFollower follower = columnView instanceof QueueColumnView
+                ? QueueFollower.of(columnView, RefreshScheduler.of(ui))
+                : null;
+        view.followButton.setVisible(follower != null);
+        if (follower != null) {
+            view.gridHolder.addComponent(follower.grid());
+            view.followButton.addClickListener((ClickListener) event ->
+                    follow(grid, (SQLContainer) data, follower, !follower.grid().isVisible()));
+            // opens on the pages of the queue, following its end once asked to
+            follower.grid().setVisible(false);
+            view.followButton.setCaption("Follow");
+        }
+
         if (data instanceof Container.Filterable) {
 
             // Create a header row to hold column filters
@@ -267,7 +382,8 @@ class ColumnViewController<K, V> {
                 // Update filter When the filter input is changed
                 @NotNull final TextChangeListener listener1 = new TextChangeListener(filterable, pid, filterField);
                 filterField.addTextChangeListener(listener1);
-                filterField.setTextChangeEventMode(EAGER);
+                filterField.setTextChangeEventMode(LAZY);
+                filterField.setTextChangeTimeout(FILTER_DELAY_MS);
 
                 if (pid.toString().toUpperCase().endsWith("TIMESTAMP")) {
                     @NotNull FocusListener listener = new FocusListener(filterField, listener1);
@@ -277,20 +393,168 @@ class ColumnViewController<K, V> {
                     filterField.setWidth(100, Sizeable.Unit.PIXELS);
 
                 cell.setComponent(filterField);
+                filterFields.add(filterField);
+            }
+        }
+
+    }
+
+    /**
+     * only the cells of the visible columns are read into the container's pages
+     */
+    private void onColumnVisibilityChange(@NotNull Grid grid,
+                                          @NotNull ColumnQueryDelegate queryDelegate,
+                                          @NotNull SQLContainer data) {
+        @NotNull final List<String> visible = new ArrayList<>();
+        for (@NotNull Grid.Column gridColumn : grid.getColumns()) {
+            if (!gridColumn.isHidden())
+                visible.add(gridColumn.getPropertyId().toString());
+        }
+
+        if (!queryDelegate.setProjection(visible))
+            return;
+
+        // the row being edited is read again, with the cells of the columns now shown
+        if (grid.isEditorActive())
+            grid.cancelEditor();
+        data.refresh();
+    }
+
+    /**
+     * shows the stats of the rows matching the filters under the grid, and those of each group in
+     * a window if a column to group by is chosen
+     */
+    private void summarise(@NotNull ColumnQueryDelegate queryDelegate) {
+        final UI ui = UI.getCurrent();
+        @Nullable final String groupBy = view.groupBy.getValue() == null ? null : view.groupBy.getValue().toString();
+
+        view.summariseButton.setEnabled(false);
+        view.summariseButton.setCaption("Summarising\u2026");
+
+        queryDelegate.aggregate(groupBy, (aggregates, failure) -> ui.access(() -> {
+            view.summariseButton.setEnabled(true);
+            view.summariseButton.setCaption("Summarise");
+            if (failure != null)
+                Notification.show("Summary failed", failure.getMessage(), Notification.Type.ERROR_MESSAGE);
+            else if (aggregates != null && summary != null) {
+                summary.show(aggregates, groupBy);
+                if (aggregates.isPartial())
+                    Notification.show(String.format("The summary is of the first %,d rows", Aggregates.MAX_ROWS),
+                            "more rows match, filter the rows to summarise them all",
+                            Notification.Type.WARNING_MESSAGE);
             }
+        }));
+    }
+
+    /**
+     * the filters changing cancels a summary still running, and the one shown is of other rows
+     */
+    private void onFiltersChanged() {
+        if (summary != null)
+            summary.clear();
+        view.summariseButton.setEnabled(true);
+        view.summariseButton.setCaption("Summarise");
+    }
+
+    /**
+     * @return the last part of the asset's path, to name the files it is exported to
+     */
+    @NotNull
+    private static String exportName(@Nullable String path) {
+        if (path == null)
+            return "export";
+        final String name = path.substring(path.lastIndexOf('/') + 1).trim();
+        return name.isEmpty() ? "export" : name;
+    }
+
+    private void save(@NotNull SQLContainer container) {
+        try {
+            container.commit();
+        } catch (SQLException | ConcurrentModificationException e) {
+            Notification.show("Save failed", e.getMessage(), Notification.Type.ERROR_MESSAGE);
         }
+    }
 
+    private void discard(@NotNull SQLContainer container) {
+        try {
+            container.rollback();
+        } catch (SQLException e) {
+            throw Jvm.rethrow(e);
+        }
     }
 
-    private void refreshUI(SQLContainer data) {
-       /* final long l = refreshUI.get();
+    private void onRowCount(@NotNull SQLContainer data, int rows, boolean counting) {
+        view.recordCount.setValue(counting
+                ? "\u2265 " + rows + " rows (counting\u2026)"
+                : Integer.toString(rows));
 
-        if (l + 5_000 < System.currentTimeMillis()) {
-            refreshUI.set(0);
+        if (counting) {
+            countEstimated = true;
+        } else if (countEstimated) {
+            countEstimated = false;
             data.refresh();
-            view.recordCount.setValue(Long.toString(columnView.rowCount(Collections.emptyList())));
-        }*/
+        }
+    }
+
+    /**
+     * shows the end of the queue, following the excerpts as they are appended, or the rows of the
+     * queue a page at a time, only the grid shown being refreshed, and the filters only being
+     * enabled for the pages
+     */
+    private void follow(@NotNull Grid grid, @NotNull SQLContainer container, @NotNull QueueFollower follower,
+                        boolean follow) {
+        follower.grid().setVisible(follow);
+        grid.setVisible(!follow);
+        view.followButton.setCaption(follow ? "Stop Following" : "Follow");
+        for (@NotNull TextField filterField : filterFields) {
+            filterField.setEnabled(!follow);
+        }
+        if (follow && !container.getContainerFilters().isEmpty())
+            Notification.show("The filters are not applied while following",
+                    "stop following to see the matching rows", Notification.Type.TRAY_NOTIFICATION);
+        // the pages may have been appended to while they were hidden
+        if (!follow)
+            container.refresh();
+    }
+
+    /**
+     * subscribes to the changes to a map by key while the grid is attached, an update to a row being
+     * patched into the grid from its new value and any other change refreshing it
+     *
+     * @return {@code false} if the view's changes can not be had by key
+     */
+    private boolean subscribeToRows(@NotNull Grid grid, @NotNull ColumnQueryDelegate queryDelegate,
+                                    @NotNull RowPatcher rowPatcher) {
+        if (assetTree == null || !(columnView instanceof MapColumnView)
+                || Schema.of(columnView).primaryKeys.size() != 1)
+            return false;
+
+        @NotNull final RequestContext rc = RequestContext.requestContext(path)
+                .elementType(MapEvent.class).bootstrap(false);
+
+        @NotNull final Subscriber<MapEvent> subscriber = e -> {
+            final List<Object> key = Collections.singletonList(e.getKey());
+            if (e instanceof UpdatedEvent) {
+                rowPatcher.onUpdated(key, e.getValue());
+                return;
+            }
 
+            // the counts, pages and key filter are kept as the change listener would have
+            if (e instanceof InsertedEvent)
+                queryDelegate.onInserted(key);
+            else if (e instanceof RemovedEvent)
+                queryDelegate.onRowsMoved();
+            else
+                queryDelegate.onChange();
+            rowPatcher.onChange();
+        };
+
+        @NotNull final SubscriptionCollection subscription = assetTree.acquireSubscription(rc);
+        grid.addAttachListener(e -> subscription.registerSubscriber(rc, subscriber, Filter.empty()));
+        grid.addDetachListener(e -> subscription.unregisterSubscriber(subscriber));
+        if (grid.isAttached())
+            subscription.registerSubscriber(rc, subscriber, Filter.empty());
+        return true;
     }
 
     @NotNull
@@ -0,0 +1,125 @@
+package net.openhft.chronicle.engine.gui;
+
+import com.vaadin.data.Container;
+import com.vaadin.server.Sizeable;
+import com.vaadin.ui.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * counts and asks before removing every row which matches the grid's filters, then shows the
+ * progress of the delete as it runs in the background. With no filters every row matches, which
+ * the question makes plain.
+ */
+class DeleteMatching {
+
+    @NotNull
+    private final ColumnQueryDelegate queryDelegate;
+    @NotNull
+    private final Runnable onDone;
+
+    /**
+     * the filters counted, and the number of rows which matched them, once counted
+     */
+    @NotNull
+    private List<Container.Filter> filters = Collections.emptyList();
+    private int rows;
+    @Nullable
+    private Future<?> running;
+
+    /**
+     * @param onDone called on the UI thread once the delete has finished
+     */
+    DeleteMatching(@NotNull ColumnQueryDelegate queryDelegate, @NotNull Runnable onDone) {
+        this.queryDelegate = queryDelegate;
+        this.onDone = onDone;
+    }
+
+    void init() {
+
+        @NotNull final UI ui = UI.getCurrent();
+
+        @NotNull Window subWindow = new Window("Delete Matching");
+        subWindow.setClosable(false);
+        subWindow.setModal(true);
+        subWindow.setResizable(false);
+        subWindow.setSizeUndefined();
+        subWindow.setWidth(350, Sizeable.Unit.PIXELS);
+
+        @NotNull final VerticalLayout layout = new VerticalLayout();
+        layout.setMargin(true);
+        layout.setSpacing(true);
+
+        @NotNull final Label message = new Label("counting the rows which match the current filters\u2026");
+        layout.addComponent(message);
+
+        @NotNull final HorizontalLayout buttons = new HorizontalLayout();
+        buttons.setSpacing(true);
+        @NotNull final Button cancel = new Button("Cancel");
+        @NotNull final Button delete = new Button("Delete");
+        delete.setEnabled(false);
+        buttons.addComponent(cancel);
+        buttons.addComponent(delete);
+        layout.addComponent(buttons);
+        layout.setComponentAlignment(buttons, Alignment.MIDDLE_RIGHT);
+
+        queryDelegate.countMatching((filters, rows, failure) -> ui.access(() -> {
+            if (failure != null) {
+                message.setValue("unable to count the rows: " + failure.getMessage());
+                return;
+            }
+            if (rows == 0) {
+                message.setValue("no rows match the current filters");
+                return;
+            }
+
+            this.filters = filters;
+            this.rows = rows;
+            if (filters.isEmpty()) {
+                message.setValue(String.format("There are no filters, so ALL %,d rows will be deleted.", rows));
+                delete.setCaption(String.format("Delete ALL %,d rows", rows));
+            } else {
+                message.setValue(String.format("Delete the %,d rows which match the current filters?", rows));
+            }
+            delete.setEnabled(true);
+        }));
+
+        cancel.addClickListener((Button.ClickListener) event -> {
+            if (running == null) {
+                subWindow.close();
+            } else {
+                cancel.setEnabled(false);
+                running.cancel(true);
+            }
+        });
+
+        delete.addClickListener((Button.ClickListener) event -> {
+            delete.setEnabled(false);
+            cancel.setCaption("Stop");
+            message.setValue("deleting\u2026");
+
+            running = queryDelegate.deleteMatching(filters, rows, (deleted, done, failure) -> ui.access(() -> {
+                if (!done) {
+                    message.setValue("deleted " + deleted + " rows\u2026");
+                    return;
+                }
+
+                message.setValue(failure == null
+                        ? "deleted " + deleted + " rows"
+                        : "deleted " + deleted + " rows, then failed: " + failure.getMessage());
+                running = null;
+                cancel.setCaption("Close");
+                cancel.setEnabled(true);
+                onDone.run();
+            }));
+        });
+
+        subWindow.setContent(layout);
+        subWindow.center();
+        ui.addWindow(subWindow);
+    }
+}
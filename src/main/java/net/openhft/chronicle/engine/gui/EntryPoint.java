@@ -1,5 +1,6 @@
 package net.openhft.chronicle.engine.gui;
 
+import com.vaadin.annotations.Push;
 import com.vaadin.annotations.Theme;
 import com.vaadin.annotations.VaadinServletConfiguration;
 import com.vaadin.navigator.Navigator;
@@ -7,6 +8,7 @@ import com.vaadin.navigator.View;
 import com.vaadin.navigator.ViewChangeListener;
 import com.vaadin.server.VaadinRequest;
 import com.vaadin.server.VaadinServlet;
+import com.vaadin.shared.ui.ui.Transport;
 import com.vaadin.ui.Component;
 import com.vaadin.ui.Notification;
 import com.vaadin.ui.UI;
@@ -28,8 +30,13 @@ import static net.openhft.chronicle.wire.WireType.BINARY;
  * <p>
  * The UI is initialized using {@link #init(VaadinRequest)}. This method is intended to be
  * overridden to add component to the user interface and initialize non-component functionality.
+ * <p>
+ * Changes made from other threads with {@link UI#access(Runnable)} are pushed to the browser over
+ * a WebSocket, falling back to long polling where it is not available, rather than the browser
+ * polling for them.
  */
 @SuppressWarnings("WeakerAccess")
+@Push(transport = Transport.WEBSOCKET)
 @Theme("mytheme")
 public class EntryPoint extends UI {
 
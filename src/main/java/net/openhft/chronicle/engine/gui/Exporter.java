@@ -0,0 +1,230 @@
+package net.openhft.chronicle.engine.gui;
+
+import com.vaadin.server.StreamResource;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.engine.api.column.Column;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Streams the rows of a view, as filtered and sorted in the grid, to a download.
+ * <p>
+ * The rows are read from the engine a chunk at a time by a background thread, and written into a
+ * pipe which the download reads from, so that only a chunk of rows and the pipe's buffer are held
+ * however many rows there are, and a slow download holds back the reads rather than filling the
+ * heap.
+ * <p>
+ * The columnar format is, all big endian
+ * <pre>
+ * int    magic "CHRC"
+ * short  version 1
+ * int    columns, then for each: UTF name, byte type (0 long, 1 double, 2 boolean, 3 string)
+ * chunks of: int rows (0 for the last), then for each column:
+ *        the null bitmap, (rows + 7) / 8 bytes, the low bit of the first byte being the first row
+ *        the value of each row which is not null: a long or double, a byte for a boolean, or an
+ *        int length and the UTF-8 bytes for a string
+ * </pre>
+ * Dates are written as longs of milliseconds since the epoch.
+ */
+final class Exporter {
+
+    /**
+     * the number of rows read from the engine and written at a time
+     */
+    static final int CHUNK_ROWS = Integer.getInteger("chronicle.gui.export.chunkRows", 1_000);
+
+    static final int PIPE_BYTES = 64 << 10;
+    static final int MAGIC = 0x43485243;
+    static final short VERSION = 1;
+
+    static final byte LONG = 0;
+    static final byte DOUBLE = 1;
+    static final byte BOOLEAN = 2;
+    static final byte STRING = 3;
+
+    enum Format {
+        CSV("csv", "text/csv"),
+        COLUMNAR("chrc", "application/octet-stream");
+
+        @NotNull
+        final String extension;
+        @NotNull
+        final String mimeType;
+
+        Format(@NotNull String extension, @NotNull String mimeType) {
+            this.extension = extension;
+            this.mimeType = mimeType;
+        }
+    }
+
+    private Exporter() {
+    }
+
+    /**
+     * @return a download of the rows the grid shows at the time it is clicked
+     */
+    @NotNull
+    static StreamResource resource(@NotNull ColumnQueryDelegate queryDelegate,
+                                   @NotNull String name,
+                                   @NotNull Format format) {
+        @NotNull final StreamResource resource = new StreamResource(
+                () -> stream(queryDelegate.export(CHUNK_ROWS), format), name + "." + format.extension);
+        resource.setMIMEType(format.mimeType);
+        resource.setCacheTime(0);
+        return resource;
+    }
+
+    @NotNull
+    private static InputStream stream(@NotNull ViewPager pager, @NotNull Format format) {
+        @NotNull final PipedInputStream in = new PipedInputStream(PIPE_BYTES);
+        @NotNull final PipedOutputStream pipe;
+        try {
+            pipe = new PipedOutputStream(in);
+        } catch (IOException e) {
+            pager.close();
+            throw Jvm.rethrow(e);
+        }
+
+        pager.tasks().submit(() -> {
+            try (OutputStream out = new BufferedOutputStream(pipe, PIPE_BYTES)) {
+                if (format == Format.CSV)
+                    writeCsv(pager, out);
+                else
+                    writeColumnar(pager, out);
+            } catch (IOException e) {
+                // the download was abandoned, and closed the pipe
+            } catch (Exception e) {
+                Jvm.warn().on(Exporter.class, "export failed", e);
+            } finally {
+                pager.close();
+            }
+        });
+
+        return in;
+    }
+
+    private static void writeCsv(@NotNull ViewPager pager, @NotNull OutputStream out) throws IOException {
+        @NotNull final Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        final List<Column> columns = pager.columns();
+
+        for (int c = 0; c < columns.size(); c++) {
+            if (c > 0)
+                writer.write(',');
+            writeCsv(writer, columns.get(c).name);
+        }
+        writer.write("\r\n");
+
+        for (int p = 0; ; p++) {
+            @NotNull final PageBuffer page = pager.page(p);
+            for (int r = 0; r < page.rows(); r++) {
+                for (int c = 0; c < columns.size(); c++) {
+                    if (c > 0)
+                        writer.write(',');
+                    final Object value = page.get(r, c);
+                    if (value instanceof Date)
+                        writer.write(Long.toString(((Date) value).getTime()));
+                    else if (value != null)
+                        writeCsv(writer, value.toString());
+                }
+                writer.write("\r\n");
+            }
+            if (page.rows() < CHUNK_ROWS)
+                break;
+        }
+        writer.flush();
+    }
+
+    private static void writeCsv(@NotNull Writer writer, @NotNull String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            final char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static void writeColumnar(@NotNull ViewPager pager, @NotNull OutputStream out) throws IOException {
+        @NotNull final DataOutputStream data = new DataOutputStream(out);
+        final List<Column> columns = pager.columns();
+
+        @NotNull final byte[] types = new byte[columns.size()];
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeInt(columns.size());
+        for (int c = 0; c < columns.size(); c++) {
+            types[c] = typeOf(columns.get(c).type);
+            data.writeUTF(columns.get(c).name);
+            data.writeByte(types[c]);
+        }
+
+        for (int p = 0; ; p++) {
+            @NotNull final PageBuffer page = pager.page(p);
+            final int rows = page.rows();
+            if (rows > 0) {
+                data.writeInt(rows);
+                for (int c = 0; c < types.length; c++) {
+                    writeColumn(data, page, c, types[c]);
+                }
+            }
+            if (rows < CHUNK_ROWS)
+                break;
+        }
+        data.writeInt(0);
+        data.flush();
+    }
+
+    private static void writeColumn(@NotNull DataOutputStream data, @NotNull PageBuffer page, int column, byte type)
+            throws IOException {
+        final int rows = page.rows();
+        @NotNull final byte[] nulls = new byte[(rows + 7) / 8];
+        for (int r = 0; r < rows; r++) {
+            if (page.isNull(r, column))
+                nulls[r >>> 3] |= 1 << (r & 7);
+        }
+        data.write(nulls);
+
+        for (int r = 0; r < rows; r++) {
+            if (page.isNull(r, column))
+                continue;
+            switch (type) {
+                case LONG:
+                    data.writeLong(page.getLong(r, column));
+                    break;
+                case DOUBLE:
+                    data.writeDouble(page.getDouble(r, column));
+                    break;
+                case BOOLEAN:
+                    data.writeByte(page.getBoolean(r, column) ? 1 : 0);
+                    break;
+                default:
+                    final String value = page.getString(r, column);
+                    @NotNull final byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+                    data.writeInt(bytes.length);
+                    data.write(bytes);
+            }
+        }
+    }
+
+    private static byte typeOf(@Nullable Class type) {
+        if (type == Long.class || type == long.class || type == Integer.class || type == int.class
+                || type == Short.class || type == short.class || type == Byte.class || type == byte.class
+                || type != null && Date.class.isAssignableFrom(type))
+            return LONG;
+        if (type == Double.class || type == double.class || type == Float.class || type == float.class)
+            return DOUBLE;
+        if (type == Boolean.class || type == boolean.class)
+            return BOOLEAN;
+        return STRING;
+    }
+}
@@ -0,0 +1,175 @@
+package net.openhft.chronicle.engine.gui;
+
+import com.vaadin.data.Container;
+import com.vaadin.data.util.filter.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static net.openhft.chronicle.engine.api.column.ColumnViewInternal.MarshableFilter;
+
+/**
+ * Translates the container's filters into the filter strings the engine evaluates next to the
+ * data, so that only the matching rows are sent to the GUI.
+ * <p>
+ * The engine ANDs its filters, each of which is one of {@code "=v"}, {@code ">v"}, {@code "<v"},
+ * {@code "[a,b]"} (with either bracket exclusive), or a plain string to match. A filter which can
+ * not be written this way throws an {@link UnsupportedFilterException}, rather than being dropped
+ * and showing rows it would have excluded.
+ * <p>
+ * The engine has no way to quote a string, so one which starts with an operator or a bracket, or
+ * holds a comma, would be read as an operator or a range and is rejected in the same way. A {@link
+ * SimpleStringFilter}, as typed into the grid's filter row, is passed as it is, in the engine's
+ * syntax.
+ */
+final class FilterTranslator {
+
+    private FilterTranslator() {
+    }
+
+    @NotNull
+    static List<MarshableFilter> toMarshables(@NotNull List<Container.Filter> filters) {
+        @NotNull final List<MarshableFilter> result = new ArrayList<>();
+        for (Container.Filter filter : filters) {
+            add(result, filter);
+        }
+        return result;
+    }
+
+    private static void add(@NotNull List<MarshableFilter> result, Container.Filter filter0) {
+
+        if (filter0 instanceof SimpleStringFilter) {
+            @NotNull final SimpleStringFilter filter = (SimpleStringFilter) filter0;
+            result.add(new MarshableFilter(filter.getPropertyId().toString(), filter.getFilterString()));
+
+        } else if (filter0 instanceof And) {
+            for (Container.Filter filter : ((And) filter0).getFilters()) {
+                add(result, filter);
+            }
+
+        } else if (filter0 instanceof Compare) {
+            @NotNull final Compare filter = (Compare) filter0;
+            result.add(new MarshableFilter(filter.getPropertyId().toString(), toString(filter)));
+
+        } else if (filter0 instanceof Between) {
+            @NotNull final Between filter = (Between) filter0;
+            result.add(new MarshableFilter(filter.getPropertyId().toString(),
+                    "[" + value(filter0, filter.getStartValue()) + "," + value(filter0, filter.getEndValue()) + "]"));
+
+        } else if (filter0 instanceof Like) {
+            @NotNull final Like filter = (Like) filter0;
+            result.add(new MarshableFilter(filter.getPropertyId().toString(), toString(filter)));
+
+        } else {
+            // Or, Not and IsNull have no equivalent on the engine
+            throw new UnsupportedFilterException("the engine can not filter on " + describe(filter0));
+        }
+    }
+
+    @NotNull
+    private static String toString(@NotNull Compare filter) {
+        final String value = value(filter, filter.getValue());
+        switch (filter.getOperation()) {
+            case EQUAL:
+                return "=" + value;
+            case GREATER:
+                return ">" + value;
+            case LESS:
+                return "<" + value;
+            case GREATER_OR_EQUAL:
+                return "[" + value + "," + maxValue(filter) + "]";
+            case LESS_OR_EQUAL:
+                return "[" + minValue(filter) + "," + value + "]";
+            default:
+                throw new UnsupportedFilterException("the engine can not filter on " + describe(filter));
+        }
+    }
+
+    /**
+     * a pattern with a wildcard at either end matches the string between them, the engine's
+     * default for strings, and one without wildcards is an exact match
+     */
+    @NotNull
+    private static String toString(@NotNull Like filter) {
+        final String pattern = filter.getValue();
+
+        if (pattern.length() >= 2 && pattern.startsWith("%") && pattern.endsWith("%")) {
+            final String match = pattern.substring(1, pattern.length() - 1);
+            if (match.indexOf('%') == -1)
+                return literal(filter, match);
+        }
+
+        if (pattern.indexOf('%') == -1)
+            return "=" + literal(filter, pattern);
+
+        throw new UnsupportedFilterException("the engine can not filter on " + describe(filter));
+    }
+
+    @NotNull
+    private static String value(@NotNull Container.Filter filter, Object value) {
+        if (value instanceof Date)
+            return Long.toString(((Date) value).getTime());
+        if (value instanceof Number || value instanceof Boolean)
+            return value.toString();
+        if (value instanceof CharSequence)
+            return literal(filter, value.toString());
+        throw new UnsupportedFilterException("the engine can not filter on " + describe(filter));
+    }
+
+    /**
+     * @return {@code value}, if the engine would read it as the string it is
+     */
+    @NotNull
+    private static String literal(@NotNull Container.Filter filter, @NotNull String value) {
+        if (!value.isEmpty() && "=<>[(".indexOf(value.charAt(0)) >= 0 || value.indexOf(',') >= 0)
+            throw new UnsupportedFilterException("the engine can not filter on " + describe(filter)
+                    + ", as it would read \"" + value + "\" as an operator or a range");
+        return value;
+    }
+
+    @NotNull
+    private static String maxValue(@NotNull Compare filter) {
+        final Object value = filter.getValue();
+        if (value instanceof Long || value instanceof Date)
+            return Long.toString(Long.MAX_VALUE);
+        if (value instanceof Integer)
+            return Integer.toString(Integer.MAX_VALUE);
+        if (value instanceof Short)
+            return Short.toString(Short.MAX_VALUE);
+        if (value instanceof Byte)
+            return Byte.toString(Byte.MAX_VALUE);
+        if (value instanceof Double)
+            return Double.toString(Double.MAX_VALUE);
+        if (value instanceof Float)
+            return Float.toString(Float.MAX_VALUE);
+        throw new UnsupportedFilterException("the engine can not filter on " + describe(filter));
+    }
+
+    @NotNull
+    private static String minValue(@NotNull Compare filter) {
+        final Object value = filter.getValue();
+        if (value instanceof Long || value instanceof Date)
+            return Long.toString(Long.MIN_VALUE);
+        if (value instanceof Integer)
+            return Integer.toString(Integer.MIN_VALUE);
+        if (value instanceof Short)
+            return Short.toString(Short.MIN_VALUE);
+        if (value instanceof Byte)
+            return Byte.toString(Byte.MIN_VALUE);
+        if (value instanceof Double)
+            return Double.toString(-Double.MAX_VALUE);
+        if (value instanceof Float)
+            return Float.toString(-Float.MAX_VALUE);
+        throw new UnsupportedFilterException("the engine can not filter on " + describe(filter));
+    }
+
+    @NotNull
+    private static String describe(@NotNull Container.Filter filter) {
+        if (filter instanceof Compare)
+            return filter.getClass().getSimpleName() + " " + ((Compare) filter).getPropertyId()
+                    + " " + ((Compare) filter).getValue();
+        return filter.getClass().getSimpleName();
+    }
+}
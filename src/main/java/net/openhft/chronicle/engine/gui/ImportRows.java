@@ -0,0 +1,117 @@
+package net.openhft.chronicle.engine.gui;
+
+import com.vaadin.server.Sizeable;
+import com.vaadin.shared.ui.label.ContentMode;
+import com.vaadin.ui.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * uploads a CSV or columnar file, as exported, adding its rows to the view and showing the progress
+ * of the import as it runs
+ */
+class ImportRows {
+
+    @NotNull
+    private final ColumnQueryDelegate queryDelegate;
+    @NotNull
+    private final Runnable onDone;
+
+    @Nullable
+    private Importer running;
+
+    /**
+     * @param onDone called on the UI thread once the import has finished
+     */
+    ImportRows(@NotNull ColumnQueryDelegate queryDelegate, @NotNull Runnable onDone) {
+        this.queryDelegate = queryDelegate;
+        this.onDone = onDone;
+    }
+
+    void init() {
+
+        @NotNull final UI ui = UI.getCurrent();
+
+        @NotNull Window subWindow = new Window("Import");
+        subWindow.setClosable(false);
+        subWindow.setModal(true);
+        subWindow.setResizable(false);
+        subWindow.setSizeUndefined();
+        subWindow.setWidth(450, Sizeable.Unit.PIXELS);
+
+        @NotNull final VerticalLayout layout = new VerticalLayout();
+        layout.setMargin(true);
+        layout.setSpacing(true);
+
+        @NotNull final Label message = new Label("Add or replace the rows of a CSV or columnar file, as exported");
+        layout.addComponent(message);
+
+        @NotNull final Label errors = new Label("", ContentMode.PREFORMATTED);
+        errors.setVisible(false);
+        layout.addComponent(errors);
+
+        @NotNull final Button cancel = new Button("Cancel");
+        @NotNull final Upload upload = new Upload(null, (Upload.Receiver) (filename, mimeType) -> {
+            running = queryDelegate.importer((progress, done) -> ui.access(() -> {
+                message.setValue(describe(progress, done));
+                if (!done)
+                    return;
+
+                if (!progress.errors.isEmpty()) {
+                    errors.setValue(String.join("\n", progress.errors)
+                            + (progress.rejected > progress.errors.size() ? "\n\u2026" : ""));
+                    errors.setVisible(true);
+                }
+                running = null;
+                cancel.setCaption("Close");
+                cancel.setEnabled(true);
+                onDone.run();
+            }));
+            return running.start();
+        });
+        upload.setButtonCaption("Import\u2026");
+        upload.setImmediate(true);
+        upload.addStartedListener((Upload.StartedListener) event -> {
+            upload.setEnabled(false);
+            errors.setVisible(false);
+            cancel.setCaption("Stop");
+            message.setValue("importing " + event.getFilename() + "\u2026");
+        });
+        layout.addComponent(upload);
+
+        cancel.addClickListener((Button.ClickListener) event -> {
+            if (running == null) {
+                subWindow.close();
+            } else {
+                cancel.setEnabled(false);
+                running.cancel();
+                if (upload.isUploading())
+                    upload.interruptUpload();
+            }
+        });
+        layout.addComponent(cancel);
+        layout.setComponentAlignment(cancel, Alignment.MIDDLE_RIGHT);
+
+        subWindow.setContent(layout);
+        subWindow.center();
+        ui.addWindow(subWindow);
+    }
+
+    @NotNull
+    private static String describe(@NotNull Importer.Progress progress, boolean done) {
+        @NotNull final StringBuilder sb = new StringBuilder();
+        sb.append(String.format("imported %,d of %,d rows at %,d rows/s", progress.written, progress.read,
+                progress.rowsPerSecond()));
+        if (progress.existing > 0)
+            sb.append(String.format(", %,d already in the view", progress.existing));
+        if (progress.unchanged > 0)
+            sb.append(String.format(", %,d unchanged", progress.unchanged));
+        if (progress.rejected > 0)
+            sb.append(String.format(", %,d rejected", progress.rejected));
+        if (!done)
+            sb.append('\u2026');
+        else if (progress.failure != null)
+            sb.append(", then failed: ").append(progress.failure.getMessage());
+        return sb.toString();
+    }
+}
@@ -0,0 +1,704 @@
+package net.openhft.chronicle.engine.gui;
+
+import net.openhft.chronicle.core.util.ObjectUtils;
+import net.openhft.chronicle.engine.api.column.Column;
+import net.openhft.chronicle.engine.api.column.ColumnViewInternal;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static net.openhft.chronicle.engine.gui.Exporter.*;
+
+/**
+ * Adds the rows of an uploaded file to a view, the file being a CSV or columnar file as written by
+ * {@link Exporter}, told apart by the columnar file's magic number.
+ * <p>
+ * The upload is written into a pipe which a background thread parses a row at a time, so only a
+ * batch of rows and the pipe's buffer are held however large the file. The converter of each
+ * column is chosen once from the file's header rather than for each cell, and each batch is sent
+ * with a number of writes in flight while the next batch is parsed.
+ * <p>
+ * The first record of a CSV file names its columns, which must include the primary keys, and an
+ * empty cell is left out of the row. A row which can not be parsed or written is skipped and
+ * reported, and the rest of the file is still imported. When a key is repeated in the file only
+ * its last row is written.
+ * <p>
+ * The keys of each batch are checked, many at a time, while the batch before is written, to count
+ * the rows which replace one already in the view.
+ */
+final class Importer {
+
+    /**
+     * the number of rows parsed before they are sent to the engine as a batch
+     */
+    static final int BATCH_ROWS = Integer.getInteger("chronicle.gui.import.batchRows", 5_000);
+
+    /**
+     * the number of writes sent to the engine before waiting for the first to complete
+     */
+    static final int MAX_IN_FLIGHT = Integer.getInteger("chronicle.gui.import.maxInFlight", 64);
+
+    /**
+     * the number of errors kept to report, later errors are only counted
+     */
+    private static final int MAX_ERRORS = 100;
+
+    /**
+     * the most rows a chunk of a columnar file may hold, more is taken to be a corrupt file
+     */
+    private static final int MAX_CHUNK_ROWS = 1 << 20;
+
+    @NotNull
+    private final Schema schema;
+    @NotNull
+    private final BatchWriter batchWriter;
+    @NotNull
+    private final KeyChecker keyChecker;
+    @NotNull
+    private final BackgroundTasks tasks;
+    @NotNull
+    private final Runnable onChange;
+    @NotNull
+    private final Listener listener;
+
+    @NotNull
+    private final PipedInputStream in = new PipedInputStream(PIPE_BYTES);
+    @Nullable
+    private Future<?> running;
+    @Nullable
+    private Future<?> writing;
+    /**
+     * the keys of the batch being written
+     */
+    @NotNull
+    private Set<Object> writingKeys = Collections.emptySet();
+
+    private final long start = System.nanoTime();
+    private volatile long read;
+    private volatile long written;
+    private volatile long existing;
+    private volatile long unchanged;
+    private volatile long rejected;
+    @NotNull
+    private final List<String> errors = new ArrayList<>();
+
+    /**
+     * notified as the rows are written, and once the import has finished
+     */
+    @FunctionalInterface
+    interface Listener {
+        /**
+         * @param progress the rows imported so far
+         * @param done     {@code true} once every row is written, or the import failed or was
+         *                 cancelled
+         */
+        void onProgress(@NotNull Progress progress, boolean done);
+    }
+
+    /**
+     * @param onChange called once the import has finished, so that rows read before it are not
+     *                 served again
+     */
+    Importer(@NotNull ColumnViewInternal columnView, @NotNull KeyChecker keyChecker, @NotNull Runnable onChange,
+             @NotNull Listener listener) {
+        this.schema = Schema.of(columnView);
+        this.batchWriter = new BatchWriter(columnView, MAX_IN_FLIGHT);
+        this.keyChecker = keyChecker;
+        this.tasks = BackgroundTasks.of(columnView);
+        this.onChange = onChange;
+        this.listener = listener;
+    }
+
+    /**
+     * starts parsing in the background
+     *
+     * @return the stream to write the file into, which must be closed at the end of the file
+     */
+    @NotNull
+    OutputStream start() {
+        @NotNull final PipedOutputStream out;
+        try {
+            out = new PipedOutputStream(in);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        running = tasks.submit(this::run);
+        return out;
+    }
+
+    /**
+     * stops parsing, the rows already sent to the engine are kept
+     */
+    void cancel() {
+        final Future<?> running = this.running;
+        if (running != null)
+            running.cancel(true);
+    }
+
+    private void run() {
+        Throwable failure = null;
+        // closing the pipe fails the upload if the import stops before the end of the file
+        try (InputStream input = new BufferedInputStream(in, PIPE_BYTES)) {
+            @NotNull final RowReader reader = open(input);
+
+            // a later row with the same key replaces an earlier one, as the writes in a batch
+            // may be applied in any order
+            @NotNull Map<Object, BatchWriter.Change> batch = new LinkedHashMap<>();
+            for (; ; ) {
+                if (Thread.currentThread().isInterrupted())
+                    throw new InterruptedIOException();
+
+                final Map<String, Object> row;
+                final Object key;
+                try {
+                    row = reader.next();
+                    if (row == null)
+                        break;
+                    key = keyOf(row, reader.record());
+                } catch (RowException e) {
+                    reject(1, "record " + reader.record() + ": " + e.getMessage());
+                    continue;
+                }
+
+                read++;
+                batch.put(key, new BatchWriter.Change(row, Collections.emptyMap()));
+                if (batch.size() >= BATCH_ROWS) {
+                    send(batch, reader.record());
+                    batch = new LinkedHashMap<>();
+                }
+            }
+
+            send(batch, reader.record());
+            awaitWrite();
+
+        } catch (Exception e) {
+            if (!(e instanceof InterruptedIOException) && !Thread.currentThread().isInterrupted())
+                failure = e;
+            if (writing != null)
+                writing.cancel(true);
+        } finally {
+            onChange.run();
+            listener.onProgress(progress(failure), true);
+        }
+    }
+
+    /**
+     * waits for the batch being written, then writes {@code batch} in the background
+     */
+    private void send(@NotNull Map<Object, BatchWriter.Change> batch, long lastRecord) throws Exception {
+        @Nullable final boolean[] found = containsAll(batch.keySet());
+        awaitWrite();
+        if (batch.isEmpty())
+            return;
+
+        if (found != null) {
+            // a key in the batch being written was checked before it was written
+            int i = 0;
+            for (Object key : batch.keySet()) {
+                if (found[i++] || writingKeys.contains(key))
+                    existing++;
+            }
+        }
+        writingKeys = batch.keySet();
+
+        writing = tasks.submit(() -> {
+            @NotNull final BatchWriter.Outcome outcome = batchWriter.writeAll(batch.values());
+            if (found != null) {
+                for (Object key : batch.keySet()) {
+                    //noinspection unchecked
+                    keyChecker.added((List<Object>) key);
+                }
+            }
+            written += outcome.changed;
+            unchanged += outcome.unchanged;
+            if (outcome.failed > 0) {
+                reject(outcome.failed, outcome.failed + " of the " + outcome.size + " rows up to record "
+                        + lastRecord + " failed: " + outcome.failure);
+            }
+            listener.onProgress(progress(null), false);
+            return null;
+        });
+    }
+
+    /**
+     * @return whether a row is in the view with each of {@code keys}, in the same order, or {@code
+     * null} if the view has no primary key
+     */
+    @Nullable
+    private boolean[] containsAll(@NotNull Set<Object> keys) throws Exception {
+        if (schema.primaryKeys.isEmpty() || keys.isEmpty())
+            return null;
+        @NotNull final List<List<Object>> list = new ArrayList<>(keys.size());
+        for (Object key : keys) {
+            //noinspection unchecked
+            list.add((List<Object>) key);
+        }
+        return keyChecker.containsAll(list);
+    }
+
+    private void awaitWrite() throws Exception {
+        final Future<?> writing = this.writing;
+        if (writing == null)
+            return;
+        this.writing = null;
+        try {
+            BackgroundTasks.await(writing);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    @NotNull
+    private Object keyOf(@NotNull Map<String, Object> row, long record) throws RowException {
+        // without a primary key every row is written
+        if (schema.primaryKeys.isEmpty())
+            return record;
+
+        @NotNull final List<Object> key = new ArrayList<>(schema.primaryKeys.size());
+        for (@NotNull String name : schema.primaryKeys) {
+            final Object value = row.get(name);
+            if (value == null)
+                throw new RowException("there is no " + name);
+            key.add(value);
+        }
+        return key;
+    }
+
+    private void reject(long rows, @NotNull String error) {
+        synchronized (errors) {
+            rejected += rows;
+            if (errors.size() < MAX_ERRORS)
+                errors.add(error);
+        }
+    }
+
+    @NotNull
+    private Progress progress(@Nullable Throwable failure) {
+        synchronized (errors) {
+            return new Progress(read, written, existing, unchanged, rejected, System.nanoTime() - start,
+                    new ArrayList<>(errors), failure);
+        }
+    }
+
+    /**
+     * the rows imported so far
+     */
+    static final class Progress {
+        /**
+         * the rows parsed
+         */
+        final long read;
+        /**
+         * the rows added or replaced
+         */
+        final long written;
+        /**
+         * the rows whose key was in the view before they were written
+         */
+        final long existing;
+        /**
+         * the rows which were already in the view as they are in the file
+         */
+        final long unchanged;
+        /**
+         * the rows which could not be parsed or written
+         */
+        final long rejected;
+        final long elapsedNanos;
+        /**
+         * the first of the reasons rows were rejected
+         */
+        @NotNull
+        final List<String> errors;
+        /**
+         * the reason the import stopped before the end of the file, or {@code null}
+         */
+        @Nullable
+        final Throwable failure;
+
+        Progress(long read, long written, long existing, long unchanged, long rejected, long elapsedNanos,
+                 @NotNull List<String> errors, @Nullable Throwable failure) {
+            this.read = read;
+            this.written = written;
+            this.existing = existing;
+            this.unchanged = unchanged;
+            this.rejected = rejected;
+            this.elapsedNanos = elapsedNanos;
+            this.errors = Collections.unmodifiableList(errors);
+            this.failure = failure;
+        }
+
+        long rowsPerSecond() {
+            return elapsedNanos <= 0 ? 0 : (long) (written * 1e9 / elapsedNanos);
+        }
+    }
+
+    @NotNull
+    private RowReader open(@NotNull InputStream input) throws IOException {
+        input.mark(4);
+        int magic = 0;
+        for (int i = 0; i < 4; i++) {
+            final int b = input.read();
+            if (b < 0)
+                break;
+            magic = magic << 8 | b;
+        }
+        input.reset();
+        return magic == MAGIC ? new ColumnarReader(input) : new CsvReader(input);
+    }
+
+    /**
+     * @return the column {@code name}
+     * @throws IllegalArgumentException if the view has no such column
+     */
+    @NotNull
+    private Column column(@NotNull String name) {
+        final int index = schema.indexOf(name);
+        if (index < 0)
+            throw new IllegalArgumentException("the view has no column " + name);
+        return schema.columns.get(index);
+    }
+
+    /**
+     * @return a converter from text to {@code type}, the text of a date being its milliseconds
+     * since the epoch as it is exported
+     */
+    @NotNull
+    static Function<String, Object> parser(@NotNull Class<?> type) {
+        if (type == String.class || type == CharSequence.class || type == Object.class)
+            return s -> s;
+        if (type == Long.class || type == long.class)
+            return Long::valueOf;
+        if (type == Integer.class || type == int.class)
+            return Integer::valueOf;
+        if (type == Short.class || type == short.class)
+            return Short::valueOf;
+        if (type == Byte.class || type == byte.class)
+            return Byte::valueOf;
+        if (type == Double.class || type == double.class)
+            return Double::valueOf;
+        if (type == Float.class || type == float.class)
+            return Float::valueOf;
+        if (type == Boolean.class || type == boolean.class)
+            return Importer::parseBoolean;
+        if (Date.class.isAssignableFrom(type))
+            return s -> new Date(Long.parseLong(s));
+        return s -> ObjectUtils.convertTo(type, s);
+    }
+
+    /**
+     * @return a converter from a value of the columnar type {@code from} to {@code type}
+     */
+    @NotNull
+    private static Function<Object, Object> converter(@NotNull Class<?> type, byte from) {
+        switch (from) {
+            case STRING:
+                @NotNull final Function<String, Object> parser = parser(type);
+                return v -> parser.apply((String) v);
+            case LONG:
+                if (type == Long.class || type == long.class)
+                    return v -> v;
+                if (Date.class.isAssignableFrom(type))
+                    return v -> new Date((Long) v);
+                break;
+            case DOUBLE:
+                if (type == Double.class || type == double.class)
+                    return v -> v;
+                break;
+            case BOOLEAN:
+                if (type == Boolean.class || type == boolean.class)
+                    return v -> v;
+                break;
+        }
+        return v -> ObjectUtils.convertTo(type, v);
+    }
+
+    @NotNull
+    private static Boolean parseBoolean(@NotNull String s) {
+        if ("true".equalsIgnoreCase(s))
+            return Boolean.TRUE;
+        if ("false".equalsIgnoreCase(s))
+            return Boolean.FALSE;
+        throw new IllegalArgumentException(s);
+    }
+
+    /**
+     * a row which could not be parsed, the rest of the file can still be read
+     */
+    private static final class RowException extends Exception {
+        RowException(@NotNull String message) {
+            super(message);
+        }
+    }
+
+    private interface RowReader {
+        /**
+         * @return the next row, or {@code null} at the end of the file
+         */
+        @Nullable
+        Map<String, Object> next() throws IOException, RowException;
+
+        /**
+         * @return the number of the record last read, counting from 1
+         */
+        long record();
+    }
+
+    private final class CsvReader implements RowReader {
+        private static final int NONE = -2;
+
+        @NotNull
+        private final Reader reader;
+        @NotNull
+        private final String[] names;
+        @NotNull
+        private final Class<?>[] types;
+        @NotNull
+        private final Function<String, Object>[] parsers;
+
+        @NotNull
+        private final List<String> fields = new ArrayList<>();
+        @NotNull
+        private final StringBuilder field = new StringBuilder();
+        private int peeked = NONE;
+        private long record;
+
+        @SuppressWarnings("unchecked")
+        CsvReader(@NotNull InputStream input) throws IOException {
+            this.reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+            if (!readRecord())
+                throw new EOFException("the file is empty");
+            record++;
+
+            final int size = fields.size();
+            names = new String[size];
+            types = new Class[size];
+            parsers = new Function[size];
+            for (int i = 0; i < size; i++) {
+                String name = fields.get(i).trim();
+                if (i == 0 && name.startsWith("\uFEFF"))
+                    name = name.substring(1);
+                @NotNull final Column column = column(name);
+                names[i] = name;
+                types[i] = column.type;
+                parsers[i] = parser(column.type);
+            }
+        }
+
+        @Nullable
+        @Override
+        public Map<String, Object> next() throws IOException, RowException {
+            do {
+                if (!readRecord())
+                    return null;
+                record++;
+            } while (fields.size() == 1 && fields.get(0).isEmpty());
+
+            if (fields.size() != names.length)
+                throw new RowException("expected " + names.length + " fields, not " + fields.size());
+
+            @NotNull final Map<String, Object> row = new HashMap<>(names.length * 2);
+            for (int i = 0; i < names.length; i++) {
+                final String value = fields.get(i);
+                if (value.isEmpty())
+                    continue;
+                try {
+                    row.put(names[i], parsers[i].apply(value));
+                } catch (RuntimeException e) {
+                    throw new RowException("can not convert '" + value + "' to " + types[i].getSimpleName()
+                            + " for " + names[i]);
+                }
+            }
+            return row;
+        }
+
+        @Override
+        public long record() {
+            return record;
+        }
+
+        /**
+         * reads the fields of the next record into {@link #fields}
+         *
+         * @return {@code false} at the end of the file
+         */
+        private boolean readRecord() throws IOException {
+            fields.clear();
+            field.setLength(0);
+            int c = read();
+            if (c < 0)
+                return false;
+
+            boolean quoted = false;
+            for (; ; c = read()) {
+                if (quoted) {
+                    if (c < 0)
+                        throw new EOFException("record " + (record + 1) + " has an unterminated quote");
+                    if (c == '"') {
+                        final int next = read();
+                        if (next == '"')
+                            field.append('"');
+                        else {
+                            quoted = false;
+                            peeked = next;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+
+                } else if (c == '\r' || c == '\n' || c < 0) {
+                    if (c == '\r') {
+                        final int next = read();
+                        if (next != '\n')
+                            peeked = next;
+                    }
+                    fields.add(field.toString());
+                    return true;
+
+                } else {
+                    field.append((char) c);
+                }
+            }
+        }
+
+        private int read() throws IOException {
+            if (peeked == NONE)
+                return reader.read();
+            final int c = peeked;
+            peeked = NONE;
+            return c;
+        }
+    }
+
+    private final class ColumnarReader implements RowReader {
+        @NotNull
+        private final DataInputStream data;
+        @NotNull
+        private final String[] names;
+        @NotNull
+        private final byte[] types;
+        @NotNull
+        private final Function<Object, Object>[] converters;
+
+        @NotNull
+        private Object[][] chunk;
+        private int rows;
+        private int next;
+        private boolean end;
+        private long record;
+
+        @SuppressWarnings("unchecked")
+        ColumnarReader(@NotNull InputStream input) throws IOException {
+            this.data = new DataInputStream(input);
+            data.readInt();
+            final short version = data.readShort();
+            if (version != VERSION)
+                throw new IOException("version " + version + " of the columnar format is not supported");
+
+            final int size = data.readInt();
+            if (size < 0 || size > Short.MAX_VALUE)
+                throw new IOException("the file is corrupt, it has " + size + " columns");
+            names = new String[size];
+            types = new byte[size];
+            converters = new Function[size];
+            chunk = new Object[size][];
+            for (int i = 0; i < size; i++) {
+                names[i] = data.readUTF();
+                types[i] = data.readByte();
+                if (types[i] < LONG || types[i] > STRING)
+                    throw new IOException("the column " + names[i] + " has an unknown type " + types[i]);
+                converters[i] = converter(column(names[i]).type, types[i]);
+            }
+        }
+
+        @Nullable
+        @Override
+        public Map<String, Object> next() throws IOException, RowException {
+            while (next >= rows) {
+                if (end)
+                    return null;
+                readChunk();
+            }
+
+            record++;
+            final int r = next++;
+            @NotNull final Map<String, Object> row = new HashMap<>(names.length * 2);
+            for (int i = 0; i < names.length; i++) {
+                final Object value = chunk[i][r];
+                if (value == null)
+                    continue;
+                try {
+                    row.put(names[i], converters[i].apply(value));
+                } catch (RuntimeException e) {
+                    throw new RowException("can not convert " + value + " for " + names[i]);
+                }
+            }
+            return row;
+        }
+
+        @Override
+        public long record() {
+            return record;
+        }
+
+        private void readChunk() throws IOException {
+            next = 0;
+            rows = data.readInt();
+            if (rows == 0) {
+                end = true;
+                return;
+            }
+            if (rows < 0 || rows > MAX_CHUNK_ROWS)
+                throw new IOException("the file is corrupt, a chunk has " + rows + " rows");
+
+            for (int i = 0; i < names.length; i++) {
+                if (chunk[i] == null || chunk[i].length < rows)
+                    chunk[i] = new Object[rows];
+                readColumn(chunk[i], types[i]);
+            }
+        }
+
+        private void readColumn(@NotNull Object[] values, byte type) throws IOException {
+            @NotNull final byte[] nulls = new byte[(rows + 7) / 8];
+            data.readFully(nulls);
+
+            for (int r = 0; r < rows; r++) {
+                if ((nulls[r >>> 3] & 1 << (r & 7)) != 0) {
+                    values[r] = null;
+                    continue;
+                }
+                switch (type) {
+                    case LONG:
+                        values[r] = data.readLong();
+                        break;
+                    case DOUBLE:
+                        values[r] = data.readDouble();
+                        break;
+                    case BOOLEAN:
+                        values[r] = data.readByte() != 0;
+                        break;
+                    default:
+                        final int length = data.readInt();
+                        if (length < 0)
+                            throw new IOException("the file is corrupt, a string has " + length + " bytes");
+                        @NotNull final byte[] bytes = new byte[length];
+                        data.readFully(bytes);
+                        values[r] = new String(bytes, StandardCharsets.UTF_8);
+                }
+            }
+        }
+    }
+}
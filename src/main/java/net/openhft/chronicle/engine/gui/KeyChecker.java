@@ -0,0 +1,243 @@
+package net.openhft.chronicle.engine.gui;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.engine.api.column.ClosableIterator;
+import net.openhft.chronicle.engine.api.column.ColumnViewInternal;
+import net.openhft.chronicle.engine.api.column.Row;
+import net.openhft.chronicle.threads.NamedThreadFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static net.openhft.chronicle.engine.api.column.ColumnViewInternal.SortedFilter;
+
+/**
+ * Checks whether rows with given primary keys exist, many keys at a time.
+ * <p>
+ * The engine checks one key per request, so the keys of a batch are sent with a number of
+ * requests in flight at once. With {@code chronicle.gui.keyFilter} set, a {@link KeyFilter} of
+ * every key in the view answers for the keys which are certainly absent without asking the
+ * engine. A key inserted is added to the filter, and a key removed may be left in it, as the filter
+ * only rules keys out. A change which does not say which rows changed, as a view's change listener
+ * reports them, drops the filter, which is built again in the background no more often than {@code
+ * chronicle.gui.keyFilter.rebuildMs}, every key being checked on the engine until then, so the
+ * filter saves little on a live view whose changes are not reported by key.
+ */
+class KeyChecker {
+
+    static final boolean KEY_FILTER = Boolean.getBoolean("chronicle.gui.keyFilter");
+
+    private static final long REBUILD_MS = Long.getLong("chronicle.gui.keyFilter.rebuildMs", 5_000);
+
+    /**
+     * the default number of key checks sent to the engine before waiting for the first to complete
+     */
+    static final int MAX_IN_FLIGHT = Integer.getInteger("chronicle.gui.keyCheck.maxInFlight", 16);
+
+    @NotNull
+    private static final ScheduledExecutorService REBUILD = Executors.newSingleThreadScheduledExecutor(
+            new NamedThreadFactory("key-filter", true));
+
+    @NotNull
+    private final ColumnViewInternal columnView;
+    private final boolean useFilter;
+    @NotNull
+    private final BackgroundTasks tasks;
+
+    /**
+     * the filter of every key in the view, or {@code null} while it is being built
+     */
+    @Nullable
+    private volatile KeyFilter filter;
+    /**
+     * the keys inserted while the filter is being built, which the scan may have missed
+     */
+    @NotNull
+    private final List<List<Object>> insertedWhileBuilding = new ArrayList<>();
+    private long modCount;
+    @Nullable
+    private Future<?> rebuild;
+    private long lastBuilt;
+    private boolean closed;
+
+    KeyChecker(@NotNull ColumnViewInternal columnView) {
+        this(columnView, KEY_FILTER);
+    }
+
+    KeyChecker(@NotNull ColumnViewInternal columnView, boolean useFilter) {
+        this.columnView = columnView;
+        this.useFilter = useFilter;
+        this.tasks = BackgroundTasks.of(columnView);
+        if (useFilter)
+            scheduleRebuild(0);
+    }
+
+    boolean contains(@NotNull List<Object> key) {
+        final KeyFilter filter = this.filter;
+        if (filter != null && !filter.mightContain(key))
+            return false;
+        return columnView.containsRowWithKey(key);
+    }
+
+    /**
+     * @return whether a row exists with each of {@code keys}, in the same order
+     * @throws SQLException if any check failed, once every check has completed
+     */
+    @NotNull
+    boolean[] containsAll(@NotNull List<List<Object>> keys) throws SQLException {
+        @NotNull final boolean[] result = new boolean[keys.size()];
+        final KeyFilter filter = this.filter;
+
+        @NotNull final Deque<Future<?>> inFlight = new ArrayDeque<>(MAX_IN_FLIGHT);
+        Throwable failure = null;
+        try {
+            for (int i = 0; i < keys.size(); i++) {
+                final List<Object> key = keys.get(i);
+                if (filter != null && !filter.mightContain(key))
+                    continue;
+
+                if (inFlight.size() >= MAX_IN_FLIGHT)
+                    failure = completed(inFlight.poll(), failure);
+                final int index = i;
+                inFlight.add(tasks.submit(() -> {
+                    result[index] = columnView.containsRowWithKey(key);
+                }));
+            }
+
+            while (!inFlight.isEmpty()) {
+                failure = completed(inFlight.poll(), failure);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("interrupted while checking " + keys.size() + " keys", e);
+        }
+        if (failure != null)
+            throw new SQLException("unable to check " + keys.size() + " keys", failure);
+
+        // the results were written by other threads, which future.get() has waited on
+        return result;
+    }
+
+    /**
+     * waits for a check, running it on this thread if it has not started
+     *
+     * @return the first reason a check failed, or {@code null}
+     */
+    @Nullable
+    private static Throwable completed(@NotNull Future<?> check, @Nullable Throwable failure)
+            throws InterruptedException {
+        try {
+            BackgroundTasks.await(check);
+        } catch (ExecutionException e) {
+            if (failure == null)
+                return e.getCause();
+        }
+        return failure;
+    }
+
+    /**
+     * notes a key written by this GUI, so that it is found before the filter is next built
+     */
+    void added(@NotNull List<Object> key) {
+        final KeyFilter filter = this.filter;
+        if (filter != null)
+            filter.add(key);
+    }
+
+    /**
+     * called when the engine reports the row with {@code key} was inserted
+     */
+    synchronized void inserted(@NotNull List<Object> key) {
+        if (!useFilter || closed)
+            return;
+        final KeyFilter filter = this.filter;
+        if (filter != null)
+            filter.add(key);
+        else if (rebuild != null && !rebuild.isDone())
+            insertedWhileBuilding.add(key);
+    }
+
+    /**
+     * called when the engine reports a change to the view which may have added any key
+     */
+    synchronized void onChange() {
+        if (!useFilter || closed)
+            return;
+        modCount++;
+        filter = null;
+        insertedWhileBuilding.clear();
+        scheduleRebuild(Math.max(0, lastBuilt + REBUILD_MS - System.currentTimeMillis()));
+    }
+
+    synchronized void close() {
+        closed = true;
+        filter = null;
+        insertedWhileBuilding.clear();
+        if (rebuild != null)
+            rebuild.cancel(true);
+    }
+
+    private synchronized void scheduleRebuild(long delayMs) {
+        if (rebuild != null && !rebuild.isDone())
+            return;
+        rebuild = REBUILD.schedule(this::rebuild, delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void rebuild() {
+        final long modCount;
+        synchronized (this) {
+            if (closed)
+                return;
+            modCount = this.modCount;
+            lastBuilt = System.currentTimeMillis();
+        }
+
+        try {
+            @NotNull final Schema schema = Schema.of(columnView);
+            @NotNull final int[] keyColumns = new int[schema.primaryKeys.size()];
+            for (int i = 0; i < keyColumns.length; i++) {
+                keyColumns[i] = schema.indexOf(schema.primaryKeys.get(i));
+            }
+
+            @NotNull final KeyFilter built = new KeyFilter(columnView.rowCount(new SortedFilter()));
+            @NotNull final ClosableIterator<Row> iterator = TrackedIterator.open(columnView, new SortedFilter());
+            try {
+                while (iterator.hasNext()) {
+                    if (Thread.currentThread().isInterrupted())
+                        return;
+                    final Row row = iterator.next();
+                    @NotNull final List<Object> key = new ArrayList<>(keyColumns.length);
+                    for (int column : keyColumns) {
+                        key.add(row.get(column));
+                    }
+                    built.add(key);
+                }
+            } finally {
+                iterator.close();
+            }
+
+            synchronized (this) {
+                rebuild = null;
+                if (closed)
+                    return;
+                if (modCount == this.modCount) {
+                    for (@NotNull List<Object> key : insertedWhileBuilding) {
+                        built.add(key);
+                    }
+                    insertedWhileBuilding.clear();
+                    filter = built;
+                } else
+                    // changed while the keys were read, which may have missed a key added
+                    scheduleRebuild(REBUILD_MS);
+            }
+        } catch (Exception e) {
+            Jvm.warn().on(KeyChecker.class, "unable to build the key filter", e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package net.openhft.chronicle.engine.gui;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A Bloom filter of primary keys, which may say a key is present when it is not, but never says
+ * a key added to it is absent.
+ */
+final class KeyFilter {
+
+    private static final int HASHES = 7;
+
+    @NotNull
+    private final long[] bits;
+    private final long size;
+
+    /**
+     * @param expectedKeys the number of keys expected, the filter is sized for about a 1% false
+     *                     positive rate at this many keys
+     */
+    KeyFilter(long expectedKeys) {
+        // m = -n ln(p) / ln(2)^2, with p = 0.01
+        final long bits = Math.max(64, (long) (Math.max(expectedKeys, 1) * 9.6));
+        this.bits = new long[(int) Math.min((bits + 63) / 64, Integer.MAX_VALUE - 8)];
+        this.size = this.bits.length * 64L;
+    }
+
+    synchronized void add(@NotNull List<Object> key) {
+        final long hash = hash(key);
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < HASHES; i++) {
+            final long bit = Math.floorMod(h1 + i * (long) h2, size);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * @return {@code false} if {@code key} was never added
+     */
+    synchronized boolean mightContain(@NotNull List<Object> key) {
+        final long hash = hash(key);
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < HASHES; i++) {
+            final long bit = Math.floorMod(h1 + i * (long) h2, size);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * spreads the key's hash code over 64 bits, the finaliser of MurmurHash3
+     */
+    private static long hash(@NotNull List<Object> key) {
+        long h = key.hashCode() * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
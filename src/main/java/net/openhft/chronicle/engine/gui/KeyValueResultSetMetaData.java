@@ -2,10 +2,14 @@ package net.openhft.chronicle.engine.gui;
 
 import net.openhft.chronicle.engine.api.column.Column;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * @author Rob Austin.
@@ -14,9 +18,29 @@ class KeyValueResultSetMetaData implements ResultSetMetaData {
 
     @NotNull
     private final List<Column> columns;
+    @NotNull
+    private final String tableName;
+    @NotNull
+    private final Map<String, Integer> indexByLabel = new HashMap<>();
 
-    KeyValueResultSetMetaData(@NotNull List<Column> columns) {
+    /**
+     * @param tableName the path of the view the columns are of, or "" if they are of no view
+     */
+    KeyValueResultSetMetaData(@NotNull List<Column> columns, @NotNull String tableName) {
         this.columns = columns;
+        this.tableName = tableName;
+        for (int i = 0; i < columns.size(); i++) {
+            indexByLabel.putIfAbsent(columns.get(i).name.toLowerCase(Locale.ROOT), i);
+        }
+    }
+
+    /**
+     * @return the index from 0 of the column labelled {@code columnLabel}, ignoring case as the
+     * labels of JDBC do, or -1 if there is none
+     */
+    int indexOf(String columnLabel) {
+        final Integer index = indexByLabel.get(columnLabel.toLowerCase(Locale.ROOT));
+        return index == null ? -1 : index;
     }
 
     @Override
@@ -31,17 +55,21 @@ class KeyValueResultSetMetaData implements ResultSetMetaData {
 
     @Override
     public boolean isCaseSensitive(int column) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        final Class type = type(column);
+        return type != null && CharSequence.class.isAssignableFrom(type);
     }
 
+    /**
+     * the engine filters on any column
+     */
     @Override
     public boolean isSearchable(int column) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return true;
     }
 
     @Override
     public boolean isCurrency(int column) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return false;
     }
 
     @Override
@@ -51,12 +79,23 @@ class KeyValueResultSetMetaData implements ResultSetMetaData {
 
     @Override
     public boolean isSigned(int column) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        final Class type = type(column);
+        return type != null && (Number.class.isAssignableFrom(type)
+                || type.isPrimitive() && type != boolean.class && type != char.class);
     }
 
     @Override
     public int getColumnDisplaySize(int column) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        final Class type = type(column);
+        if (type == Boolean.class || type == boolean.class)
+            return 5;
+        if (type == Float.class || type == float.class)
+            return 15;
+        if (type == Double.class || type == double.class)
+            return 24;
+        final int precision = getPrecision(column);
+        // an integer has a sign as well as its digits, and a string has no limit
+        return precision == 0 ? Integer.MAX_VALUE : precision + 1;
     }
 
     @Override
@@ -69,37 +108,66 @@ class KeyValueResultSetMetaData implements ResultSetMetaData {
         return columns.get(column - 1).name;
     }
 
+    /**
+     * the views are in no schema
+     */
     @NotNull
     @Override
     public String getSchemaName(int column) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return "";
     }
 
+    /**
+     * @return the most decimal digits of a number, or 0 if the column is not a number or has no
+     * fixed precision
+     */
     @Override
     public int getPrecision(int column) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        final Class type = type(column);
+        if (type == Boolean.class || type == boolean.class)
+            return 1;
+        if (type == Byte.class || type == byte.class)
+            return 3;
+        if (type == Short.class || type == short.class)
+            return 5;
+        if (type == Integer.class || type == int.class)
+            return 10;
+        if (type == Long.class || type == long.class)
+            return 19;
+        if (type == Float.class || type == float.class)
+            return 7;
+        if (type == Double.class || type == double.class)
+            return 15;
+        return 0;
     }
 
+    /**
+     * @return 0, as the integers have no digits after the point and the floating point numbers no
+     * fixed number of them
+     */
     @Override
     public int getScale(int column) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return 0;
     }
 
     @NotNull
     @Override
     public String getTableName(int column) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return tableName;
     }
 
+    /**
+     * the views are in no catalog
+     */
     @NotNull
     @Override
     public String getCatalogName(int column) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return "";
     }
 
     @Override
     public int getColumnType(int column) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return ChronicleDatabaseMetaData.sqlType(type(column));
     }
 
     @NotNull
@@ -118,25 +186,38 @@ class KeyValueResultSetMetaData implements ResultSetMetaData {
         return !columns.get(column - 1).isReadOnly();
     }
 
+    /**
+     * the connection is read only
+     */
     @Override
     public boolean isDefinitelyWritable(int column) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return false;
     }
 
     @NotNull
     @Override
     public String getColumnClassName(int column) throws SQLException {
-        return "java.lang.String";
+        final Class type = type(column);
+        return type == null ? Object.class.getName() : type.getName();
     }
 
     @NotNull
     @Override
     public <T> T unwrap(Class<T> iface) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        if (iface.isInstance(this))
+            return iface.cast(this);
+        throw new SQLException("not a " + iface.getName());
     }
 
     @Override
     public boolean isWrapperFor(Class<?> iface) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return iface.isInstance(this);
+    }
+
+    @Nullable
+    private Class type(int column) throws SQLException {
+        if (column < 1 || column > columns.size())
+            throw new SQLException("there is no column " + column + ", there are " + columns.size());
+        return columns.get(column - 1).type;
     }
 }
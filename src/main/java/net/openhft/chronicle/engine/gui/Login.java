@@ -1,7 +1,6 @@
 package net.openhft.chronicle.engine.gui;
 
 import com.vaadin.data.validator.AbstractValidator;
-import com.vaadin.event.UIEvents;
 import com.vaadin.navigator.Navigator;
 import com.vaadin.navigator.View;
 import com.vaadin.navigator.ViewChangeListener;
@@ -13,9 +12,12 @@ import net.openhft.chronicle.core.annotation.Nullable;
 import net.openhft.chronicle.engine.tree.VanillaAssetTree;
 import net.openhft.chronicle.network.VanillaSessionDetails;
 import net.openhft.chronicle.network.connection.ClientConnectionMonitor;
+import net.openhft.chronicle.threads.NamedThreadFactory;
 import org.jetbrains.annotations.NotNull;
 
 import java.net.SocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static net.openhft.chronicle.engine.gui.EntryPoint.MAINVIEW;
 import static net.openhft.chronicle.engine.gui.EntryPoint.remote;
@@ -25,6 +27,14 @@ public class Login extends CustomComponent implements View, Button.ClickListener
     private static final String NAME = "login";
     private static final String DEFAULT_HOSTPORT = "localhost:9090";
     private static final String DEFAULT_USER = "admin";
+
+    /**
+     * takes the outcome of a login off the engine's connection thread, which must not wait on a
+     * session's lock
+     */
+    @NotNull
+    private static final ExecutorService LOGIN_EVENTS = Executors.newSingleThreadExecutor(
+            new NamedThreadFactory("login-events", true));
     @NotNull
     private final TextField user;
     @NotNull
@@ -36,11 +46,7 @@ public class Login extends CustomComponent implements View, Button.ClickListener
     private final Navigator navigator;
 
     @org.jetbrains.annotations.Nullable
-    private volatile UIEvents.PollListener eventListener;
-    @org.jetbrains.annotations.Nullable
-    private volatile VanillaAssetTree remoteTree = null;
-    @org.jetbrains.annotations.Nullable
-    private volatile Boolean isConnected = null;
+    private VanillaAssetTree remoteTree = null;
 
     public Login(Navigator navigator, final String caption) {
         this.navigator = navigator;
@@ -93,35 +99,7 @@ public class Login extends CustomComponent implements View, Button.ClickListener
 
     @Override
     public void enter(ViewChangeListener.ViewChangeEvent event0) {
-        // focus the username field when user arrives to the login view
-        isConnected = null;
-
-        @org.jetbrains.annotations.Nullable UIEvents.PollListener eventListener0 = this.eventListener;
-        if (eventListener0 != null)
-            getUI().getCurrent().removePollListener(eventListener0);
-
-        this.eventListener = event -> {
-            if (isConnected == null)
-                return;
-            if (isConnected) {
-                getSession().setAttribute("tree", remoteTree);
-                navigator.navigateTo(MAINVIEW);
-                getUI().getCurrent().removePollListener(this.eventListener);
-                this.eventListener = null;
-            } else {
-                getSession().setAttribute("tree", null);
-                remoteTree.close();
-                remoteTree = null;
-                navigator.navigateTo("");
-                isConnected = null;
-                getUI().getCurrent().removePollListener(this.eventListener);
-                this.eventListener = null;
-            }
-        };
-
-        getUI().getCurrent().setPollInterval(1000);
-        getUI().getCurrent().addPollListener(this.eventListener);
-
+        loginButton.setEnabled(true);
     }
 
     @Override
@@ -144,25 +122,60 @@ public class Login extends CustomComponent implements View, Button.ClickListener
         @NotNull final String remoteHost = "".isEmpty() ? DEFAULT_HOSTPORT : hostPort;
 
 
+        // the monitor is called on the engine's thread, the outcome is handed to another thread
+        // and pushed to the browser from there
+        @NotNull final UI ui = getUI();
         @NotNull final ClientConnectionMonitor monitor = new ClientConnectionMonitor() {
 
             @Override
             public void onConnected(@Nullable String name,
                                     @NotNull SocketAddress socketAddress) {
-                isConnected = true;
+                LOGIN_EVENTS.execute(() -> access(ui, () -> onLogin(true)));
             }
 
             @Override
             public void onDisconnected(@Nullable String name,
                                        @NotNull SocketAddress socketAddress) {
-                isConnected = false;
+                LOGIN_EVENTS.execute(() -> access(ui, () -> onLogin(false)));
             }
         };
 
+        // the session is locked until this returns, so the monitor's updates run after remoteTree is set
         remoteTree = remote(remoteHost, sessionDetails, monitor);
 
     }
 
+    /**
+     * called on the UI thread with the first outcome of a login, those after it are ignored
+     */
+    private void onLogin(boolean isConnected) {
+        if (remoteTree == null)
+            return;
+
+        if (isConnected) {
+            getSession().setAttribute("tree", remoteTree);
+            navigator.navigateTo(MAINVIEW);
+        } else {
+            getSession().setAttribute("tree", null);
+            remoteTree.close();
+            navigator.navigateTo("");
+        }
+        remoteTree = null;
+    }
+
+    private void access(@NotNull UI ui, @NotNull Runnable runnable) {
+        try {
+            ui.access(runnable);
+        } catch (UIDetachedException e) {
+            // the browser has gone, so no one is waiting on the login
+            @org.jetbrains.annotations.Nullable final VanillaAssetTree remoteTree = this.remoteTree;
+            if (remoteTree != null) {
+                this.remoteTree = null;
+                remoteTree.close();
+            }
+        }
+    }
+
     // Validator for validating the passwords
     private static final class PasswordValidator extends
             AbstractValidator<String> {
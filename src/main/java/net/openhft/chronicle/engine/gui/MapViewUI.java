@@ -3,6 +3,7 @@ package net.openhft.chronicle.engine.gui;
 import com.vaadin.annotations.AutoGenerated;
 import com.vaadin.annotations.DesignRoot;
 import com.vaadin.ui.Button;
+import com.vaadin.ui.ComboBox;
 import com.vaadin.ui.Label;
 import com.vaadin.ui.VerticalLayout;
 import com.vaadin.ui.declarative.Design;
@@ -27,6 +28,15 @@ public class MapViewUI extends VerticalLayout {
     protected Label keyStoreValue;
     protected VerticalLayout gridHolder;
     protected Button addButton;
+    protected Button importButton;
+    protected Button deleteMatchingButton;
+    protected Button discardButton;
+    protected Button saveButton;
+    protected ComboBox groupBy;
+    protected Button summariseButton;
+    protected Button exportCsvButton;
+    protected Button exportColumnarButton;
+    protected Button followButton;
 
     public MapViewUI() {
         Design.read(this);
@@ -2,237 +2,328 @@ package net.openhft.chronicle.engine.gui;
 
 import org.intellij.lang.annotations.MagicConstant;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.*;
 
 /**
+ * runs queries on a {@link ChronicleConnection}, each closing the result set of the last
+ *
  * @author Rob Austin.
  */
 public class MyStatement implements Statement {
+
+    static final Object[] NO_PARAMETERS = {};
+
+    @Nullable
+    private final ChronicleConnection connection;
+    @Nullable
+    private ChronicleColumnViewResultSet resultSet;
+    private int maxRows;
+    private int fetchSize;
+    private int fetchDirection = ResultSet.FETCH_FORWARD;
+    private boolean closeOnCompletion;
+    private boolean closed;
+
+    /**
+     * a statement which is not connected, and so can not run queries
+     */
+    public MyStatement() {
+        this(null);
+    }
+
+    MyStatement(@Nullable ChronicleConnection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * runs {@code plan} as the result set of this statement, closing the last one
+     */
+    @NotNull
+    ResultSet executeQuery(@NotNull QueryPlan plan, @NotNull Object[] parameters) throws SQLException {
+        if (connection == null)
+            throw new SQLException("the statement is not connected");
+        closeResultSet();
+        resultSet = connection.executeQuery(plan, parameters, maxRows, fetchSize);
+        resultSet.statement(this);
+        resultSet.setFetchDirection(fetchDirection);
+        return resultSet;
+    }
+
+    void checkOpen() throws SQLException {
+        if (closed)
+            throw new SQLException("the statement is closed");
+    }
+
+    private void closeResultSet() throws SQLException {
+        final ChronicleColumnViewResultSet resultSet = this.resultSet;
+        if (resultSet != null) {
+            this.resultSet = null;
+            resultSet.close();
+        }
+    }
+
+    /**
+     * called when a result set of this statement is closed, other than by the statement
+     */
+    void onClosed(@NotNull ChronicleColumnViewResultSet resultSet) throws SQLException {
+        if (resultSet != this.resultSet)
+            return;
+        this.resultSet = null;
+        if (closeOnCompletion)
+            close();
+    }
+
     @NotNull
     @Override
     public ResultSet executeQuery(String sql) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        checkOpen();
+        if (connection == null)
+            throw new SQLException("the statement is not connected");
+        return executeQuery(connection.plan(sql), NO_PARAMETERS);
     }
 
     @Override
     public int executeUpdate(String sql) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the connection is read only");
     }
 
     @Override
     public void close() throws SQLException {
-
+        if (closed)
+            return;
+        closed = true;
+        closeResultSet();
     }
 
     @Override
     public int getMaxFieldSize() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return 0;
     }
 
     @Override
     public void setMaxFieldSize(int max) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        if (max != 0)
+            throw new SQLFeatureNotSupportedException("the cells are not truncated");
     }
 
     @Override
     public int getMaxRows() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return maxRows;
     }
 
     @Override
     public void setMaxRows(int max) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        if (max < 0)
+            throw new SQLException("maxRows must not be negative");
+        this.maxRows = max;
     }
 
     @Override
     public void setEscapeProcessing(boolean enable) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        // there are no escapes to process
     }
 
     @Override
     public int getQueryTimeout() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return 0;
     }
 
     @Override
     public void setQueryTimeout(int seconds) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        if (seconds < 0)
+            throw new SQLException("the query timeout must not be negative");
+        // the rows are read a page at a time, so there is no long running query to time out
     }
 
     @Override
     public void cancel() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        closeResultSet();
     }
 
-    @NotNull
+    @Nullable
     @Override
     public SQLWarning getWarnings() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return null;
     }
 
     @Override
     public void clearWarnings() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+
     }
 
     @Override
     public void setCursorName(String name) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("positioned updates are not supported");
     }
 
     @Override
     public boolean execute(String sql) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        executeQuery(sql);
+        return true;
     }
 
-    @NotNull
+    @Nullable
     @Override
     public ResultSet getResultSet() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return resultSet;
     }
 
     @Override
     public int getUpdateCount() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return -1;
     }
 
     @Override
     public boolean getMoreResults() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        closeResultSet();
+        return false;
     }
 
     @Override
     public void setFetchDirection(@MagicConstant(intValues = {ResultSet.FETCH_FORWARD, ResultSet.FETCH_REVERSE, ResultSet.FETCH_UNKNOWN}) int direction) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        if (direction != ResultSet.FETCH_FORWARD && direction != ResultSet.FETCH_REVERSE
+                && direction != ResultSet.FETCH_UNKNOWN)
+            throw new SQLException("unknown fetch direction " + direction);
+        this.fetchDirection = direction;
     }
 
     @Override
     public int getFetchDirection() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return fetchDirection;
     }
 
     @Override
     public void setFetchSize(int rows) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        if (rows < 0)
+            throw new SQLException("the fetch size must not be negative");
+        this.fetchSize = rows;
     }
 
     @Override
     public int getFetchSize() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return fetchSize;
     }
 
     @Override
     public int getResultSetConcurrency() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return ResultSet.CONCUR_READ_ONLY;
     }
 
     @Override
     public int getResultSetType() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return ResultSet.TYPE_SCROLL_INSENSITIVE;
     }
 
     @Override
     public void addBatch(String sql) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the connection is read only");
     }
 
     @Override
     public void clearBatch() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the connection is read only");
     }
 
     @NotNull
     @Override
     public int[] executeBatch() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the connection is read only");
     }
 
-    @NotNull
+    @Nullable
     @Override
     public Connection getConnection() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return connection;
     }
 
     @Override
     public boolean getMoreResults(@MagicConstant(intValues = {Statement.CLOSE_CURRENT_RESULT, Statement.KEEP_CURRENT_RESULT, Statement.CLOSE_ALL_RESULTS}) int current) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        if (current != Statement.KEEP_CURRENT_RESULT)
+            closeResultSet();
+        return false;
     }
 
     @NotNull
     @Override
     public ResultSet getGeneratedKeys() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the connection is read only, so generates no keys");
     }
 
     @Override
     public int executeUpdate(String sql, @MagicConstant(intValues = {Statement.RETURN_GENERATED_KEYS, Statement.NO_GENERATED_KEYS}) int autoGeneratedKeys) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the connection is read only");
     }
 
     @Override
     public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the connection is read only");
     }
 
     @Override
     public int executeUpdate(String sql, String[] columnNames) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the connection is read only");
     }
 
     @Override
     public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        if (autoGeneratedKeys != Statement.NO_GENERATED_KEYS)
+            throw new SQLFeatureNotSupportedException("the connection is read only, so generates no keys");
+        return execute(sql);
     }
 
     @Override
     public boolean execute(String sql, int[] columnIndexes) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the connection is read only, so generates no keys");
     }
 
     @Override
     public boolean execute(String sql, String[] columnNames) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        throw new SQLFeatureNotSupportedException("the connection is read only, so generates no keys");
     }
 
     @Override
     public int getResultSetHoldability() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return ResultSet.HOLD_CURSORS_OVER_COMMIT;
     }
 
     @Override
     public boolean isClosed() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return closed;
     }
 
     @Override
     public void setPoolable(boolean poolable) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        // statements are not pooled
     }
 
     @Override
     public boolean isPoolable() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return false;
     }
 
     @Override
     public void closeOnCompletion() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        checkOpen();
+        closeOnCompletion = true;
     }
 
     @Override
     public boolean isCloseOnCompletion() throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        checkOpen();
+        return closeOnCompletion;
     }
 
     @NotNull
     @Override
     public <T> T unwrap(Class<T> iface) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        if (iface.isInstance(this))
+            return iface.cast(this);
+        throw new SQLException("not a " + iface.getName());
     }
 
     @Override
     public boolean isWrapperFor(Class<?> iface) throws SQLException {
-        throw new UnsupportedOperationException("todo");
+        return iface.isInstance(this);
     }
 }
@@ -0,0 +1,538 @@
+package net.openhft.chronicle.engine.gui;
+
+import net.openhft.chronicle.engine.api.column.Column;
+import net.openhft.chronicle.engine.api.column.Row;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * A page of rows held column by column, with the numeric and boolean columns in primitive arrays
+ * and each string column as codes into a dictionary of the distinct strings on the page, so that a
+ * page costs the same few arrays however many cells it holds, and the typed getters read a cell
+ * without boxing it.
+ * <p>
+ * Columns left out of the projection are not held, and read as {@code null}.
+ */
+final class PageBuffer {
+
+    private static final int ARRAY_BYTES = 16;
+    private static final int REFERENCE_BYTES = 8;
+    private static final int STRING_BYTES = 40;
+
+    private final int start;
+    private final int rows;
+    @NotNull
+    private final ColumnData[] columns;
+    private final long bytes;
+
+    private PageBuffer(int start, int rows, @NotNull ColumnData[] columns, long bytes) {
+        this.start = start;
+        this.rows = rows;
+        this.columns = columns;
+        this.bytes = bytes;
+    }
+
+    private PageBuffer(int rows, @NotNull ColumnData[] columns) {
+        this.start = 0;
+        this.rows = rows;
+        this.columns = columns;
+        long bytes = ARRAY_BYTES + REFERENCE_BYTES * columns.length;
+        for (ColumnData column : columns) {
+            if (column != null)
+                bytes += column.bytes();
+        }
+        this.bytes = bytes;
+    }
+
+    @NotNull
+    static Builder builder(@NotNull List<Column> columns, @Nullable Set<String> projection, int capacity) {
+        return new Builder(columns, projection, capacity);
+    }
+
+    /**
+     * @param columns the columns of the page
+     * @param source  the index in each row read of each of {@code columns}
+     */
+    @NotNull
+    static Builder builder(@NotNull List<Column> columns, @NotNull int[] source, int capacity) {
+        return new Builder(columns, source, capacity);
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    /**
+     * @return the rows from {@code from} up to {@code to}, sharing the arrays of this page
+     */
+    @NotNull
+    PageBuffer slice(int from, int to) {
+        if (from < 0 || to > rows || from > to)
+            throw new IndexOutOfBoundsException("[" + from + "," + to + ") of " + rows + " rows");
+        return from == 0 && to == rows ? this : new PageBuffer(start + from, to - from, columns, 0);
+    }
+
+    int columns() {
+        return columns.length;
+    }
+
+    /**
+     * @return the approximate memory held by this page, or 0 for a slice
+     */
+    long bytes() {
+        return bytes;
+    }
+
+    boolean isNull(int row, int column) {
+        final ColumnData data = columns[column];
+        return data == null || data.nulls.get(start + row);
+    }
+
+    /**
+     * @return the cell, boxed as the type of its column
+     */
+    @Nullable
+    Object get(int row, int column) {
+        return isNull(row, column) ? null : columns[column].get(start + row);
+    }
+
+    /**
+     * @return the cell as a long, or 0 if it is {@code null}
+     */
+    long getLong(int row, int column) {
+        return isNull(row, column) ? 0 : columns[column].getLong(start + row);
+    }
+
+    /**
+     * @return the cell as a double, or 0 if it is {@code null}
+     */
+    double getDouble(int row, int column) {
+        return isNull(row, column) ? 0 : columns[column].getDouble(start + row);
+    }
+
+    /**
+     * @return the cell as a boolean, or {@code false} if it is {@code null}
+     */
+    boolean getBoolean(int row, int column) {
+        return !isNull(row, column) && columns[column].getBoolean(start + row);
+    }
+
+    /**
+     * @return the cell as a string, or {@code null}
+     */
+    @Nullable
+    String getString(int row, int column) {
+        return isNull(row, column) ? null : columns[column].getString(start + row);
+    }
+
+    /**
+     * reads rows from the engine into a page
+     */
+    static final class Builder {
+        @NotNull
+        private final ColumnData[] columns;
+        @NotNull
+        private final int[] source;
+        private final int capacity;
+        private int rows;
+
+        private Builder(@NotNull List<Column> columns, @Nullable Set<String> projection, int capacity) {
+            this.capacity = capacity;
+            this.columns = new ColumnData[columns.size()];
+            this.source = new int[columns.size()];
+            for (int i = 0; i < this.columns.length; i++) {
+                final Column column = columns.get(i);
+                if (projection == null || projection.contains(column.name))
+                    this.columns[i] = ColumnData.of(column.type, capacity);
+                source[i] = i;
+            }
+        }
+
+        private Builder(@NotNull List<Column> columns, @NotNull int[] source, int capacity) {
+            this.capacity = capacity;
+            this.columns = new ColumnData[columns.size()];
+            this.source = source;
+            for (int i = 0; i < this.columns.length; i++) {
+                this.columns[i] = ColumnData.of(columns.get(i).type, capacity);
+            }
+        }
+
+        int rows() {
+            return rows;
+        }
+
+        boolean isFull() {
+            return rows == capacity;
+        }
+
+        void add(@NotNull Row row) {
+            add(row::get);
+        }
+
+        /**
+         * adds a row of cells made up by the GUI, rather than read from the engine
+         */
+        void add(@NotNull Object... cells) {
+            add(i -> cells[i]);
+        }
+
+        private void add(@NotNull IntFunction<Object> cells) {
+            if (isFull())
+                throw new IllegalStateException("the page is full");
+            for (int i = 0; i < columns.length; i++) {
+                final ColumnData column = columns[i];
+                if (column == null)
+                    continue;
+                final Object value = cells.apply(source[i]);
+                if (value == null)
+                    column.nulls.set(rows);
+                else if (!column.set(rows, value))
+                    // not the type the column said, so hold it as it is
+                    (columns[i] = column.toObjects(rows, capacity)).set(rows, value);
+            }
+            rows++;
+        }
+
+        @NotNull
+        PageBuffer build() {
+            return new PageBuffer(rows, columns);
+        }
+    }
+
+    private abstract static class ColumnData {
+        final BitSet nulls = new BitSet();
+
+        @NotNull
+        static ColumnData of(@Nullable Class type, int capacity) {
+            if (type == Long.class || type == long.class)
+                return new LongData(capacity);
+            if (type == Integer.class || type == int.class || type == Short.class || type == short.class
+                    || type == Byte.class || type == byte.class)
+                return new IntData(type, capacity);
+            if (type == Double.class || type == double.class || type == Float.class || type == float.class)
+                return new DoubleData(type, capacity);
+            if (type == Boolean.class || type == boolean.class)
+                return new BooleanData();
+            if (type == String.class)
+                return new StringData(capacity);
+            return new ObjectData(capacity);
+        }
+
+        /**
+         * @return {@code false} if {@code value} can not be held by this column
+         */
+        abstract boolean set(int row, @NotNull Object value);
+
+        @NotNull
+        abstract Object get(int row);
+
+        abstract long bytes();
+
+        long getLong(int row) {
+            return ((Number) get(row)).longValue();
+        }
+
+        double getDouble(int row) {
+            return ((Number) get(row)).doubleValue();
+        }
+
+        boolean getBoolean(int row) {
+            final Object value = get(row);
+            return value instanceof Boolean ? (Boolean) value : getLong(row) != 0;
+        }
+
+        @NotNull
+        String getString(int row) {
+            return get(row).toString();
+        }
+
+        @NotNull
+        ObjectData toObjects(int rows, int capacity) {
+            @NotNull final ObjectData objects = new ObjectData(capacity);
+            for (int row = 0; row < rows; row++) {
+                if (nulls.get(row))
+                    objects.nulls.set(row);
+                else
+                    objects.set(row, get(row));
+            }
+            return objects;
+        }
+    }
+
+    private static final class LongData extends ColumnData {
+        @NotNull
+        private final long[] values;
+
+        LongData(int capacity) {
+            values = new long[capacity];
+        }
+
+        @Override
+        boolean set(int row, @NotNull Object value) {
+            if (!(value instanceof Long || value instanceof Integer || value instanceof Short
+                    || value instanceof Byte))
+                return false;
+            values[row] = ((Number) value).longValue();
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        long getLong(int row) {
+            return values[row];
+        }
+
+        @Override
+        double getDouble(int row) {
+            return values[row];
+        }
+
+        @Override
+        long bytes() {
+            return ARRAY_BYTES + 8L * values.length;
+        }
+    }
+
+    private static final class IntData extends ColumnData {
+        @NotNull
+        private final Class type;
+        @NotNull
+        private final int[] values;
+
+        IntData(@NotNull Class type, int capacity) {
+            this.type = type;
+            values = new int[capacity];
+        }
+
+        @Override
+        boolean set(int row, @NotNull Object value) {
+            if (!(value instanceof Integer || value instanceof Short || value instanceof Byte))
+                return false;
+            values[row] = ((Number) value).intValue();
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object get(int row) {
+            if (type == Short.class || type == short.class)
+                return (short) values[row];
+            if (type == Byte.class || type == byte.class)
+                return (byte) values[row];
+            return values[row];
+        }
+
+        @Override
+        long getLong(int row) {
+            return values[row];
+        }
+
+        @Override
+        double getDouble(int row) {
+            return values[row];
+        }
+
+        @Override
+        long bytes() {
+            return ARRAY_BYTES + 4L * values.length;
+        }
+    }
+
+    private static final class DoubleData extends ColumnData {
+        private final boolean isFloat;
+        @NotNull
+        private final double[] values;
+
+        DoubleData(@NotNull Class type, int capacity) {
+            isFloat = type == Float.class || type == float.class;
+            values = new double[capacity];
+        }
+
+        @Override
+        boolean set(int row, @NotNull Object value) {
+            if (!(value instanceof Double || value instanceof Float))
+                return false;
+            values[row] = ((Number) value).doubleValue();
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object get(int row) {
+            return isFloat ? (Object) (float) values[row] : (Object) values[row];
+        }
+
+        @Override
+        long getLong(int row) {
+            return (long) values[row];
+        }
+
+        @Override
+        double getDouble(int row) {
+            return values[row];
+        }
+
+        @Override
+        long bytes() {
+            return ARRAY_BYTES + 8L * values.length;
+        }
+    }
+
+    private static final class BooleanData extends ColumnData {
+        private final BitSet values = new BitSet();
+
+        @Override
+        boolean set(int row, @NotNull Object value) {
+            if (!(value instanceof Boolean))
+                return false;
+            values.set(row, (Boolean) value);
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object get(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        long getLong(int row) {
+            return values.get(row) ? 1 : 0;
+        }
+
+        @Override
+        double getDouble(int row) {
+            return getLong(row);
+        }
+
+        @Override
+        boolean getBoolean(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        long bytes() {
+            return ARRAY_BYTES + values.size() / 8;
+        }
+    }
+
+    private static final class StringData extends ColumnData {
+        @NotNull
+        private final int[] codes;
+        private final List<String> strings = new ArrayList<>();
+        private final Map<String, Integer> codeByString = new HashMap<>();
+        private long stringBytes;
+
+        StringData(int capacity) {
+            codes = new int[capacity];
+        }
+
+        @Override
+        boolean set(int row, @NotNull Object value) {
+            if (!(value instanceof String))
+                return false;
+            Integer code = codeByString.get(value);
+            if (code == null) {
+                code = strings.size();
+                strings.add((String) value);
+                codeByString.put((String) value, code);
+                stringBytes += STRING_BYTES + 2 * ((String) value).length();
+            }
+            codes[row] = code;
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object get(int row) {
+            return strings.get(codes[row]);
+        }
+
+        @NotNull
+        @Override
+        String getString(int row) {
+            return strings.get(codes[row]);
+        }
+
+        @Override
+        long getLong(int row) {
+            return Long.parseLong(getString(row));
+        }
+
+        @Override
+        double getDouble(int row) {
+            return Double.parseDouble(getString(row));
+        }
+
+        @Override
+        boolean getBoolean(int row) {
+            return Boolean.parseBoolean(getString(row));
+        }
+
+        @Override
+        long bytes() {
+            return ARRAY_BYTES + 4L * codes.length + 2 * REFERENCE_BYTES * strings.size() + stringBytes;
+        }
+    }
+
+    private static final class ObjectData extends ColumnData {
+        @NotNull
+        private final Object[] values;
+
+        ObjectData(int capacity) {
+            values = new Object[capacity];
+        }
+
+        @Override
+        boolean set(int row, @NotNull Object value) {
+            values[row] = value;
+            return true;
+        }
+
+        @NotNull
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        long getLong(int row) {
+            final Object value = values[row];
+            if (value instanceof Date)
+                return ((Date) value).getTime();
+            return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(value.toString());
+        }
+
+        @Override
+        double getDouble(int row) {
+            final Object value = values[row];
+            return value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(value.toString());
+        }
+
+        @Override
+        boolean getBoolean(int row) {
+            final Object value = values[row];
+            return value instanceof Boolean ? (Boolean) value : getLong(row) != 0;
+        }
+
+        @Override
+        long bytes() {
+            long bytes = ARRAY_BYTES + (long) REFERENCE_BYTES * values.length;
+            for (Object value : values) {
+                if (value instanceof CharSequence)
+                    bytes += STRING_BYTES + 2 * ((CharSequence) value).length();
+                else if (value != null)
+                    bytes += 2 * REFERENCE_BYTES;
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package net.openhft.chronicle.engine.gui;
+
+import com.vaadin.data.Container;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * A least recently used cache of the pages served by the {@link ColumnQueryDelegate}, bounded by
+ * an approximate memory budget, so that scrolling back and forth over the same rows does not go
+ * back to the engine every time.
+ */
+class PageCache {
+
+    /**
+     * the default memory budget of each cache, in bytes
+     */
+    static final long DEFAULT_MAX_BYTES = Long.getLong("chronicle.gui.pageCache.bytes", 16 << 20);
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, PageBuffer> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long modCount;
+
+    PageCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @return the number of the changes seen so far, pass this to {@link #put(Key, PageBuffer, long)} so
+     * that a page read before a change is not cached after it
+     */
+    synchronized long modCount() {
+        return modCount;
+    }
+
+    @Nullable
+    synchronized PageBuffer get(@NotNull Key key) {
+        return pages.get(key);
+    }
+
+    synchronized void put(@NotNull Key key, @NotNull PageBuffer page, long modCount) {
+        if (modCount != this.modCount)
+            return;
+
+        final long size = page.bytes();
+        if (size > maxBytes)
+            return;
+
+        final PageBuffer old = pages.put(key, page);
+        if (old != null)
+            bytes -= old.bytes();
+        bytes += size;
+
+        for (Iterator<PageBuffer> it = pages.values().iterator(); bytes > maxBytes && it.hasNext(); ) {
+            bytes -= it.next().bytes();
+            it.remove();
+        }
+    }
+
+    /**
+     * drops every page, called when the engine reports that the view has changed
+     */
+    synchronized void invalidate() {
+        modCount++;
+        pages.clear();
+        bytes = 0;
+    }
+
+    /**
+     * identifies a page by everything that went into the query that produced it
+     */
+    static final class Key {
+        @NotNull
+        private final List<Container.Filter> filters;
+        @NotNull
+        private final List<String> orderBys;
+        @Nullable
+        private final Set<String> projection;
+        private final int offset;
+        private final int pageLength;
+
+        Key(@NotNull List<Container.Filter> filters,
+            @NotNull List<String> orderBys,
+            @Nullable Set<String> projection,
+            int offset,
+            int pageLength) {
+            this.filters = new ArrayList<>(filters);
+            this.orderBys = orderBys;
+            this.projection = projection;
+            this.offset = offset;
+            this.pageLength = pageLength;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            @NotNull final Key key = (Key) o;
+            return offset == key.offset &&
+                    pageLength == key.pageLength &&
+                    filters.equals(key.filters) &&
+                    orderBys.equals(key.orderBys) &&
+                    Objects.equals(projection, key.projection);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(filters, orderBys, projection, offset, pageLength);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package net.openhft.chronicle.engine.gui;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A least recently used cache of the plans of the queries run on a connection, keyed by their
+ * SQL, so that a query run over and over is parsed and resolved only the first time.
+ */
+class PlanCache {
+
+    /**
+     * the default number of plans held by each connection
+     */
+    static final int DEFAULT_MAX_PLANS = Integer.getInteger("chronicle.jdbc.planCache.size", 256);
+
+    private final Map<String, QueryPlan> plans;
+
+    PlanCache(final int maxPlans) {
+        this.plans = new LinkedHashMap<String, QueryPlan>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, QueryPlan> eldest) {
+                return size() > maxPlans;
+            }
+        };
+    }
+
+    @Nullable
+    synchronized QueryPlan get(@NotNull String sql) {
+        return plans.get(sql);
+    }
+
+    synchronized void put(@NotNull String sql, @NotNull QueryPlan plan) {
+        plans.put(sql, plan);
+    }
+
+    /**
+     * drops every plan, so that the next run of each query resolves its columns again
+     */
+    synchronized void invalidate() {
+        plans.clear();
+    }
+}
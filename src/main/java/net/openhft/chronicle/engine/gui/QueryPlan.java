@@ -0,0 +1,129 @@
+package net.openhft.chronicle.engine.gui;
+
+import com.vaadin.data.util.filter.UnsupportedFilterException;
+import net.openhft.chronicle.engine.api.column.Column;
+import net.openhft.chronicle.engine.api.column.ColumnViewInternal;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLSyntaxErrorException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static net.openhft.chronicle.engine.api.column.ColumnViewInternal.*;
+
+/**
+ * A query parsed and resolved against the columns of its view, so that running it again only
+ * binds the values of its parameters. The filters are translated once as well, unless they hold a
+ * parameter.
+ */
+final class QueryPlan {
+
+    @NotNull
+    final ColumnViewInternal columnView;
+    @NotNull
+    final SelectStatement select;
+    @NotNull
+    private final Schema schema;
+    /**
+     * the columns returned, and the index of each in the rows of the view
+     */
+    @NotNull
+    final List<Column> columns;
+    @NotNull
+    final int[] source;
+    /**
+     * the name the view gives the column of each condition
+     */
+    @NotNull
+    private final List<String> conditionColumns;
+    @NotNull
+    private final List<MarshableOrderBy> orderBy;
+    @Nullable
+    private final List<MarshableFilter> filters;
+
+    private QueryPlan(@NotNull ColumnViewInternal columnView, @NotNull SelectStatement select) throws SQLException {
+        this.columnView = columnView;
+        this.select = select;
+        this.schema = Schema.of(columnView);
+
+        final List<Column> all = schema.columns;
+        if (select.columns.isEmpty()) {
+            columns = all;
+            source = new int[all.size()];
+            for (int i = 0; i < source.length; i++) {
+                source[i] = i;
+            }
+        } else {
+            columns = new ArrayList<>(select.columns.size());
+            source = new int[select.columns.size()];
+            for (int i = 0; i < source.length; i++) {
+                source[i] = indexOf(all, select.columns.get(i), select.path);
+                columns.add(all.get(source[i]));
+            }
+        }
+
+        // the engine matches names exactly, so each is sent as the view spells it
+        final List<String> conditionColumns = new ArrayList<>(select.conditions.size());
+        for (@NotNull SelectStatement.Condition condition : select.conditions) {
+            conditionColumns.add(all.get(indexOf(all, condition.column, select.path)).name);
+        }
+        this.conditionColumns = Collections.unmodifiableList(conditionColumns);
+
+        final List<MarshableOrderBy> orderBy = new ArrayList<>(select.orderBy.size());
+        for (int i = 0; i < select.orderBy.size(); i++) {
+            final String column = all.get(indexOf(all, select.orderBy.get(i), select.path)).name;
+            orderBy.add(new MarshableOrderBy(column, select.ascending.get(i)));
+        }
+        this.orderBy = Collections.unmodifiableList(orderBy);
+
+        this.filters = select.filtersHaveParameters()
+                ? null
+                : Collections.unmodifiableList(toMarshables(MyStatement.NO_PARAMETERS));
+    }
+
+    @NotNull
+    static QueryPlan of(@NotNull ColumnViewInternal columnView, @NotNull SelectStatement select) throws SQLException {
+        return new QueryPlan(columnView, select);
+    }
+
+    /**
+     * @return {@code false} once the columns of the view have changed, and the query must be
+     * planned again
+     */
+    boolean isCurrent() {
+        return schema.isCurrent(columnView);
+    }
+
+    /**
+     * @return the engine query, with {@code parameters} bound to it
+     */
+    @NotNull
+    SortedFilter bind(@NotNull Object[] parameters) throws SQLException {
+        @NotNull final SortedFilter filter = new SortedFilter();
+        filter.marshableFilters = new ArrayList<>(filters == null ? toMarshables(parameters) : filters);
+        filter.marshableOrderBy = new ArrayList<>(orderBy);
+        return filter;
+    }
+
+    @NotNull
+    private List<MarshableFilter> toMarshables(@NotNull Object[] parameters) throws SQLException {
+        try {
+            return FilterTranslator.toMarshables(select.filters(conditionColumns, parameters));
+        } catch (UnsupportedFilterException e) {
+            throw new SQLFeatureNotSupportedException(e.getMessage(), e);
+        }
+    }
+
+    private static int indexOf(@NotNull List<Column> columns, @NotNull String name, @NotNull String path)
+            throws SQLSyntaxErrorException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).name.equalsIgnoreCase(name))
+                return i;
+        }
+        throw new SQLSyntaxErrorException("there is no column " + name + " in " + path);
+    }
+}
@@ -0,0 +1,276 @@
+package net.openhft.chronicle.engine.gui;
+
+import com.vaadin.data.Item;
+import com.vaadin.data.util.IndexedContainer;
+import com.vaadin.data.util.filter.Compare;
+import com.vaadin.ui.Grid;
+import com.vaadin.ui.UI;
+import com.vaadin.ui.UIDetachedException;
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.engine.api.column.ClosableIterator;
+import net.openhft.chronicle.engine.api.column.Column;
+import net.openhft.chronicle.engine.api.column.ColumnViewInternal;
+import net.openhft.chronicle.engine.api.column.Row;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static java.util.Collections.singletonList;
+import static net.openhft.chronicle.engine.api.column.ColumnViewInternal.SortedFilter;
+
+/**
+ * Follows the end of a queue, showing its newest excerpts in a grid of their own, newest first, as
+ * they are appended. It opens on the last {@link #RING_ROWS} excerpts, using {@code countFromEnd},
+ * and each time the view is refreshed reads those appended after the newest it shows, by the
+ * queue's index, dropping the oldest rows from the grid to keep at most {@link #RING_ROWS}.
+ * <p>
+ * The excerpts are read in the background, so that a slow engine does not hold the session's
+ * lock, and added to the grid on the UI thread, one read running at a time.
+ * <p>
+ * When more than {@link #MAX_ROWS_PER_REFRESH} are appended between refreshes the browser can not
+ * keep up, and the {@link DropPolicy} decides which are shown.
+ */
+final class QueueFollower {
+
+    /**
+     * the most rows held in the grid, the oldest being dropped as new ones are added
+     */
+    static final int RING_ROWS = Integer.getInteger("chronicle.gui.follow.rows", 1_000);
+
+    /**
+     * the most rows added to the grid each time it is refreshed
+     */
+    static final int MAX_ROWS_PER_REFRESH = Integer.getInteger("chronicle.gui.follow.maxRowsPerRefresh", 200);
+
+    static final DropPolicy DROP_POLICY = DropPolicy.valueOf(
+            System.getProperty("chronicle.gui.follow.dropPolicy", "OLDEST").toUpperCase(Locale.ROOT));
+
+    /**
+     * which excerpts are shown when more are appended between refreshes than can be
+     */
+    enum DropPolicy {
+        /**
+         * those which can not be shown are dropped, oldest first, so the grid shows the newest
+         */
+        OLDEST,
+        /**
+         * none are dropped, the grid showing each of them in order as fast as it can, and falling
+         * behind the end of the queue until the appends slow down
+         */
+        NONE
+    }
+
+    @NotNull
+    private final ColumnViewInternal columnView;
+    @NotNull
+    private final List<Column> columns;
+    @NotNull
+    private final String indexColumn;
+    @NotNull
+    private final IndexedContainer container = new IndexedContainer();
+    @NotNull
+    private final Grid grid;
+
+    @NotNull
+    private final RefreshScheduler.Target target;
+    @NotNull
+    private final BackgroundTasks tasks;
+
+    /**
+     * the index of the newest excerpt read, or {@code null} before the first is read
+     */
+    @Nullable
+    private Object lastIndex;
+    private long nextItemId;
+    private long dropped;
+    /**
+     * set on the UI thread while the excerpts are read, and {@code again} if the view changed
+     * meanwhile
+     */
+    private boolean reading;
+    private boolean again;
+
+    private QueueFollower(@NotNull ColumnViewInternal columnView, @NotNull String indexColumn,
+                          @NotNull RefreshScheduler scheduler) {
+        this.columnView = columnView;
+        this.columns = Schema.of(columnView).columns;
+        this.indexColumn = indexColumn;
+        this.tasks = BackgroundTasks.of(columnView);
+
+        for (@NotNull Column column : columns) {
+            container.addContainerProperty(column.name, String.class, null);
+        }
+
+        grid = new Grid(container);
+        grid.setSizeFull();
+        grid.setSelectionMode(Grid.SelectionMode.NONE);
+        for (@NotNull Grid.Column gridColumn : grid.getColumns()) {
+            gridColumn.setSortable(false);
+            gridColumn.setHidable(true);
+        }
+
+        // reads the end of the queue when the grid is first shown, and each time it changes after
+        target = scheduler.register(grid, this::refresh);
+        ChangeListeners.addWhileAttached(columnView, grid, target::changed);
+        target.changed();
+    }
+
+    /**
+     * @return a follower of {@code columnView}, or {@code null} if its rows have no single numeric
+     * key, such as a queue's index, to read those appended after the last it has read
+     */
+    @Nullable
+    static QueueFollower of(@NotNull ColumnViewInternal columnView, @NotNull RefreshScheduler scheduler) {
+        @NotNull final Schema schema = Schema.of(columnView);
+        if (schema.primaryKeys.size() != 1)
+            return null;
+
+        final String indexColumn = schema.primaryKeys.get(0);
+        final Column column = schema.columns.get(schema.indexOf(indexColumn));
+        if (column.type == null || !Number.class.isAssignableFrom(column.type))
+            return null;
+        return new QueueFollower(columnView, indexColumn, scheduler);
+    }
+
+    @NotNull
+    Grid grid() {
+        return grid;
+    }
+
+    /**
+     * reads the excerpts appended since it was last called in the background, called on the UI
+     * thread
+     */
+    private void refresh() {
+        if (reading) {
+            again = true;
+            return;
+        }
+        final UI ui = grid.getUI();
+        if (ui == null)
+            return;
+
+        reading = true;
+        final Object lastIndex = this.lastIndex;
+        tasks.submit(() -> {
+            Read read = null;
+            try {
+                read = read(lastIndex);
+            } catch (RuntimeException e) {
+                Jvm.warn().on(QueueFollower.class, "unable to read the end of the queue", e);
+            }
+            @Nullable final Read result = read;
+            try {
+                ui.access(() -> show(result));
+            } catch (UIDetachedException ignored) {
+                // the browser has gone
+            }
+        });
+    }
+
+    /**
+     * @param lastIndex the index of the newest excerpt shown, or {@code null} if none are
+     * @return the excerpts appended after {@code lastIndex}, read on a background thread
+     */
+    @NotNull
+    private Read read(@Nullable Object lastIndex) {
+        @NotNull final SortedFilter filter = new SortedFilter();
+        final int maxRows;
+        if (lastIndex == null) {
+            maxRows = RING_ROWS;
+            filter.countFromEnd = maxRows;
+        } else {
+            maxRows = MAX_ROWS_PER_REFRESH;
+            filter.marshableFilters = FilterTranslator.toMarshables(
+                    singletonList(new Compare.Greater(indexColumn, lastIndex)));
+            if (DROP_POLICY == DropPolicy.OLDEST)
+                filter.countFromEnd = maxRows;
+        }
+
+        @NotNull final Read read = new Read();
+        @NotNull final ClosableIterator<Row> iterator = TrackedIterator.open(columnView, filter);
+        try {
+            while (read.rows.size() < maxRows && iterator.hasNext()) {
+                read.rows.add(iterator.next());
+            }
+        } finally {
+            iterator.close();
+        }
+
+        read.full = !read.rows.isEmpty() && read.rows.size() == maxRows && lastIndex != null;
+        if (read.full && DROP_POLICY == DropPolicy.OLDEST)
+            read.dropped = count(lastIndex, read.rows.get(0));
+        return read;
+    }
+
+    /**
+     * adds the excerpts read to the grid, on the UI thread
+     *
+     * @param read the excerpts read, or {@code null} if they could not be
+     */
+    private void show(@Nullable Read read) {
+        reading = false;
+        if (again || read != null && read.full && DROP_POLICY == DropPolicy.NONE)
+            // there may be more to read, so read them next time
+            target.changed();
+        again = false;
+        if (read == null || read.rows.isEmpty())
+            return;
+
+        dropped += read.dropped;
+        final int index = Schema.of(columnView).indexOf(indexColumn);
+        for (@NotNull Row row : read.rows) {
+            add(row);
+        }
+        lastIndex = read.rows.get(read.rows.size() - 1).get(index);
+
+        grid.setCaption(dropped == 0 ? null
+                : String.format("%,d excerpts were appended too fast to show", dropped));
+    }
+
+    /**
+     * the excerpts read by one refresh
+     */
+    private static final class Read {
+        @NotNull
+        final List<Row> rows = new ArrayList<>();
+        /**
+         * {@code true} if as many were read as may be at once, so there may be more
+         */
+        boolean full;
+        /**
+         * the number appended too fast to be read
+         */
+        long dropped;
+    }
+
+    /**
+     * @return the number of excerpts appended after {@code lastIndex} and before {@code first}
+     */
+    private long count(@NotNull Object lastIndex, @NotNull Row first) {
+        @NotNull final SortedFilter filter = new SortedFilter();
+        final Object firstIndex = first.get(Schema.of(columnView).indexOf(indexColumn));
+        filter.marshableFilters = FilterTranslator.toMarshables(Arrays.asList(
+                new Compare.Greater(indexColumn, lastIndex),
+                new Compare.Less(indexColumn, firstIndex)));
+        return columnView.rowCount(filter);
+    }
+
+    private void add(@NotNull Row row) {
+        final Object itemId = nextItemId++;
+        final Item item = container.addItemAt(0, itemId);
+        for (int i = 0; i < columns.size(); i++) {
+            final Object value = row.get(i);
+            //noinspection unchecked
+            item.getItemProperty(columns.get(i).name).setValue(value == null ? null : value.toString());
+        }
+
+        while (container.size() > RING_ROWS) {
+            container.removeItem(container.lastItemId());
+        }
+    }
+}
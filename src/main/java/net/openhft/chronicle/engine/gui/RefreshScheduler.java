@@ -0,0 +1,227 @@
+package net.openhft.chronicle.engine.gui;
+
+import com.vaadin.ui.Component;
+import com.vaadin.ui.HasComponents;
+import com.vaadin.ui.TabSheet;
+import com.vaadin.ui.UI;
+import com.vaadin.ui.UIDetachedException;
+import net.openhft.chronicle.threads.NamedThreadFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refreshes the live views of a UI. The changes to a view, reported from any thread, are coalesced
+ * so that a burst of them refreshes it once, no view is refreshed more often than every {@link
+ * #INTERVAL_MS}, and the refreshes due are pushed to the browser together.
+ * <p>
+ * A view is registered while its component is attached, and one which is hidden, itself, by an
+ * ancestor or by being in a tab which is not selected, is refreshed once it is shown rather than
+ * each time it changes.
+ */
+final class RefreshScheduler {
+
+    /**
+     * the least time between refreshes of a view
+     */
+    static final long INTERVAL_MS = Long.getLong("chronicle.gui.refresh.intervalMs", 250);
+
+    /**
+     * how often a hidden view which has changed is checked to see if it is shown
+     */
+    static final long HIDDEN_CHECK_MS = Long.getLong("chronicle.gui.refresh.hiddenCheckMs", 1_000);
+
+    @NotNull
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            new NamedThreadFactory("refresh-scheduler", true));
+
+    @NotNull
+    private static final Map<UI, RefreshScheduler> SCHEDULERS = new HashMap<>();
+
+    @NotNull
+    private final UI ui;
+
+    /**
+     * the views attached, guarded by this
+     */
+    @NotNull
+    private final Set<Target> targets = new LinkedHashSet<>();
+    @Nullable
+    private ScheduledFuture<?> wake;
+    private long wakeAt;
+
+    private RefreshScheduler(@NotNull UI ui) {
+        this.ui = ui;
+    }
+
+    @NotNull
+    static RefreshScheduler of(@NotNull UI ui) {
+        synchronized (SCHEDULERS) {
+            RefreshScheduler scheduler = SCHEDULERS.get(ui);
+            if (scheduler == null) {
+                SCHEDULERS.put(ui, scheduler = new RefreshScheduler(ui));
+                ui.addDetachListener(e -> {
+                    synchronized (SCHEDULERS) {
+                        SCHEDULERS.remove(ui);
+                    }
+                });
+            }
+            return scheduler;
+        }
+    }
+
+    /**
+     * @param component the view, registered while it is attached
+     * @param refresh   called on the UI thread to refresh the view once it has changed
+     */
+    @NotNull
+    Target register(@NotNull Component component, @NotNull Runnable refresh) {
+        @NotNull final Target target = new Target(component, refresh);
+        component.addAttachListener(e -> attach(target));
+        component.addDetachListener(e -> detach(target));
+        if (component.isAttached())
+            attach(target);
+        return target;
+    }
+
+    private synchronized void attach(@NotNull Target target) {
+        targets.add(target);
+        if (target.changed)
+            wakeAt(target.due());
+    }
+
+    private synchronized void detach(@NotNull Target target) {
+        targets.remove(target);
+        if (targets.isEmpty() && wake != null) {
+            wake.cancel(false);
+            wake = null;
+        }
+    }
+
+    /**
+     * @param time when to push the refreshes due, unless one is already to be pushed before then
+     */
+    private void wakeAt(long time) {
+        assert Thread.holdsLock(this);
+        if (wake != null) {
+            if (wakeAt <= time)
+                return;
+            wake.cancel(false);
+        }
+        wakeAt = time;
+        wake = SCHEDULER.schedule(this::push, Math.max(0, time - System.currentTimeMillis()),
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void push() {
+        synchronized (this) {
+            wake = null;
+        }
+        try {
+            ui.access(this::refresh);
+        } catch (UIDetachedException e) {
+            synchronized (this) {
+                targets.clear();
+            }
+        }
+    }
+
+    /**
+     * refreshes the views which are due, on the UI thread
+     */
+    private void refresh() {
+        final long now = System.currentTimeMillis();
+        @NotNull final List<Target> due = new ArrayList<>();
+        synchronized (this) {
+            for (@NotNull Target target : targets) {
+                if (target.changed && target.due() <= now)
+                    due.add(target);
+            }
+        }
+
+        for (@NotNull Target target : due) {
+            synchronized (this) {
+                if (!isShowing(target.component)) {
+                    target.notBefore = now + HIDDEN_CHECK_MS;
+                    continue;
+                }
+                target.changed = false;
+                target.notBefore = 0;
+                target.lastRefresh = now;
+            }
+            target.refresh.run();
+        }
+
+        synchronized (this) {
+            for (@NotNull Target target : targets) {
+                if (target.changed)
+                    wakeAt(target.due());
+            }
+        }
+    }
+
+    private static boolean isShowing(@NotNull Component component) {
+        for (Component c = component; c != null; c = c.getParent()) {
+            if (!c.isVisible())
+                return false;
+            final HasComponents parent = c.getParent();
+            if (parent instanceof TabSheet && ((TabSheet) parent).getSelectedTab() != c)
+                return false;
+        }
+        return component.isAttached();
+    }
+
+    /**
+     * a view registered with the scheduler
+     */
+    final class Target {
+        @NotNull
+        private final Component component;
+        @NotNull
+        private final Runnable refresh;
+
+        // guarded by the scheduler
+        private boolean changed;
+        private long notBefore;
+        private long lastRefresh;
+
+        private Target(@NotNull Component component, @NotNull Runnable refresh) {
+            this.component = component;
+            this.refresh = refresh;
+        }
+
+        /**
+         * called from any thread when the view has changed, to refresh it as soon as it may be
+         */
+        void changed() {
+            changed(0);
+        }
+
+        /**
+         * called from any thread when the view has changed, to refresh it no sooner than {@code
+         * delayMs} from now
+         */
+        void changed(long delayMs) {
+            synchronized (RefreshScheduler.this) {
+                changed = true;
+                notBefore = Math.max(notBefore, System.currentTimeMillis() + delayMs);
+                if (targets.contains(this))
+                    wakeAt(due());
+            }
+        }
+
+        private long due() {
+            return Math.max(notBefore, lastRefresh + INTERVAL_MS);
+        }
+    }
+}
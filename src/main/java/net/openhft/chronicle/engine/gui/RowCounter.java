@@ -0,0 +1,216 @@
+package net.openhft.chronicle.engine.gui;
+
+import com.vaadin.data.Container;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.Future;
+import java.util.function.ToIntFunction;
+
+/**
+ * Caches the row count of a column view per set of filters, until the engine reports a change.
+ * <p>
+ * In async mode an exact count is run in the background, while {@link #count(List)} returns a
+ * cheap estimate, so that opening a large view does not hold the UI thread for a full scan.
+ */
+class RowCounter {
+
+    static final boolean ASYNC = Boolean.parseBoolean(System.getProperty("chronicle.gui.asyncRowCount", "true"));
+
+    /**
+     * how long an exact count is still handed out after the view has changed, before it is
+     * counted again, so that a busy view is not rescanned on every request
+     */
+    private static final long MIN_RECOUNT_INTERVAL_MS = Long.getLong("chronicle.gui.rowCount.minIntervalMs", 1_000);
+
+    private static final int MAX_ENTRIES = 64;
+
+    /**
+     * notified of every count handed out, and of every exact count which completes in the
+     * background
+     */
+    @FunctionalInterface
+    interface Listener {
+        /**
+         * @param rows     the number of rows
+         * @param counting {@code true} if {@code rows} is an estimate and an exact count is still
+         *                 running
+         */
+        void onCount(int rows, boolean counting);
+    }
+
+    @NotNull
+    private final ToIntFunction<List<Container.Filter>> exactCount;
+    @NotNull
+    private final ToIntFunction<List<Container.Filter>> estimate;
+    @NotNull
+    private final BackgroundTasks tasks;
+    private final boolean async;
+
+    private final Map<List<Container.Filter>, Count> counts = new LinkedHashMap<List<Container.Filter>, Count>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Container.Filter>, Count> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private final Map<List<Container.Filter>, Future<?>> running = new HashMap<>();
+    private long modCount;
+
+    @Nullable
+    private volatile Listener listener;
+
+    /**
+     * @param exactCount counts the rows matching the filters on the engine
+     * @param estimate   a cheap lower bound for the rows matching the filters, used while the
+     *                   exact count runs in async mode
+     * @param tasks      runs the exact counts in async mode
+     * @param async      {@code true} to run exact counts in the background
+     */
+    RowCounter(@NotNull ToIntFunction<List<Container.Filter>> exactCount,
+               @NotNull ToIntFunction<List<Container.Filter>> estimate,
+               @NotNull BackgroundTasks tasks,
+               boolean async) {
+        this.exactCount = exactCount;
+        this.estimate = estimate;
+        this.tasks = tasks;
+        this.async = async;
+    }
+
+    void listener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return the exact number of rows matching {@code filters} if it is known, otherwise in async
+     * mode an estimate while the exact count runs in the background
+     */
+    int count(@NotNull List<Container.Filter> filters) {
+        @NotNull final List<Container.Filter> key = new ArrayList<>(filters);
+        final long modCount;
+        final Count count;
+
+        synchronized (this) {
+            modCount = this.modCount;
+            count = counts.get(key);
+        }
+
+        if (count != null && count.exact && (count.modCount == modCount
+                || System.currentTimeMillis() - count.timeMs < MIN_RECOUNT_INTERVAL_MS)) {
+            notifyListener(count.rows, false);
+            return count.rows;
+        }
+
+        if (!async) {
+            final int rows = exactCount.applyAsInt(key);
+            onCounted(key, rows, true, modCount);
+            notifyListener(rows, false);
+            return rows;
+        }
+
+        final int rows = count != null ? count.rows : estimate.applyAsInt(key);
+        if (count == null)
+            onCounted(key, rows, false, modCount);
+
+        countInBackground(key, modCount);
+        notifyListener(rows, true);
+        return rows;
+    }
+
+    /**
+     * records what a page has shown about the number of rows matching {@code filters}
+     *
+     * @param offset     the offset the page was read from
+     * @param rows       the number of rows read
+     * @param pageLength the number of rows asked for
+     * @param modCount   the value of {@link #modCount()} before the page was read
+     */
+    void onPage(@NotNull List<Container.Filter> filters, int offset, int rows, int pageLength, long modCount) {
+        // a short page gives the exact count, provided it did not start past the end
+        final boolean exact = rows < pageLength && (rows > 0 || offset == 0);
+        onCounted(new ArrayList<>(filters), offset + rows, exact, modCount);
+    }
+
+    /**
+     * marks the counts taken so far as out of date, called when the engine reports that the view
+     * has changed
+     */
+    synchronized void invalidate() {
+        modCount++;
+    }
+
+    /**
+     * cancels the counts running in the background for any filters other than {@code filters},
+     * called when the filters change so that a count nobody is waiting on stops
+     */
+    synchronized void cancelOthers(@NotNull List<Container.Filter> filters) {
+        for (Iterator<Map.Entry<List<Container.Filter>, Future<?>>> it = running.entrySet().iterator(); it.hasNext(); ) {
+            final Map.Entry<List<Container.Filter>, Future<?>> entry = it.next();
+            if (!entry.getKey().equals(filters)) {
+                entry.getValue().cancel(true);
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * cancels every count running in the background
+     */
+    synchronized void cancelAll() {
+        for (@NotNull Future<?> future : running.values()) {
+            future.cancel(true);
+        }
+        running.clear();
+    }
+
+    synchronized long modCount() {
+        return modCount;
+    }
+
+    private synchronized void onCounted(@NotNull List<Container.Filter> key, int rows, boolean exact, long modCount) {
+        final Count count = counts.get(key);
+
+        // keep what is already known about the current state, unless this is better
+        if (count != null && count.modCount == this.modCount
+                && (modCount != this.modCount || count.exact || (!exact && count.rows >= rows)))
+            return;
+
+        counts.put(key, new Count(rows, exact, modCount));
+    }
+
+    private synchronized void countInBackground(@NotNull List<Container.Filter> key, long modCount) {
+        if (running.containsKey(key))
+            return;
+
+        running.put(key, tasks.submit(() -> {
+            try {
+                final int rows = exactCount.applyAsInt(key);
+                onCounted(key, rows, true, modCount);
+                notifyListener(rows, false);
+            } finally {
+                synchronized (this) {
+                    running.remove(key);
+                }
+            }
+        }));
+    }
+
+    private void notifyListener(int rows, boolean counting) {
+        final Listener listener = this.listener;
+        if (listener != null)
+            listener.onCount(rows, counting);
+    }
+
+    private static final class Count {
+        final int rows;
+        final boolean exact;
+        final long modCount;
+        final long timeMs = System.currentTimeMillis();
+
+        Count(int rows, boolean exact, long modCount) {
+            this.rows = rows;
+            this.exact = exact;
+            this.modCount = modCount;
+        }
+    }
+}
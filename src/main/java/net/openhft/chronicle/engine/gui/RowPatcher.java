@@ -0,0 +1,147 @@
+package net.openhft.chronicle.engine.gui;
+
+import com.vaadin.data.util.filter.UnsupportedFilterException;
+import com.vaadin.data.util.sqlcontainer.RowId;
+import com.vaadin.data.util.sqlcontainer.RowItem;
+import com.vaadin.data.util.sqlcontainer.SQLContainer;
+import com.vaadin.ui.Grid;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies the changes the engine reports to the rows of a view, by key, to the rows the grid holds
+ * rather than refreshing the whole container. A row the container holds whose values changed is
+ * patched in place from the value the engine reported, or read again on its own if its columns can
+ * not be taken from the value, and one it does not hold is read when it is scrolled to.
+ * <p>
+ * A change which may add, remove or move a row, an insert, a remove, a change to a column the grid
+ * is filtered or sorted on, or one the engine does not give the key of, refreshes the container,
+ * at most once every {@link #REFRESH_MS}.
+ * <p>
+ * The changes are collected as they arrive and applied when the {@link RefreshScheduler} next
+ * refreshes the view, so that a row updated many times between refreshes is read once.
+ */
+final class RowPatcher extends Grid.AbstractGridExtension {
+
+    /**
+     * the least time between refreshes of the whole container
+     */
+    static final long REFRESH_MS = Long.getLong("chronicle.gui.refresh.minMs", 5_000);
+
+    /**
+     * the most rows updated between refreshes which are patched, with more the container is refreshed
+     */
+    static final int MAX_PATCH_ROWS = Integer.getInteger("chronicle.gui.patch.maxRows", 256);
+
+    @NotNull
+    private final RefreshScheduler.Target target;
+    @NotNull
+    private final SQLContainer container;
+    @NotNull
+    private final ColumnQueryDelegate queryDelegate;
+
+    /**
+     * the latest value of each row updated, or {@code null} if it is to be read
+     */
+    @NotNull
+    private final Map<List<Object>, Object> updated = new LinkedHashMap<>();
+    private boolean refresh;
+    private long lastRefresh;
+
+    RowPatcher(@NotNull RefreshScheduler scheduler, @NotNull Grid grid, @NotNull SQLContainer container,
+               @NotNull ColumnQueryDelegate queryDelegate) {
+        super(grid);
+        this.container = container;
+        this.queryDelegate = queryDelegate;
+        this.target = scheduler.register(grid, this::apply);
+    }
+
+    /**
+     * called from the engine's thread when the values of the row with {@code key} have changed
+     *
+     * @param value the map's new value for {@code key}, or {@code null} to read the row
+     */
+    synchronized void onUpdated(@NotNull List<Object> key, @Nullable Object value) {
+        if (refresh)
+            return;
+        updated.put(key, value);
+        if (updated.size() > MAX_PATCH_ROWS)
+            onChange();
+        else
+            target.changed();
+    }
+
+    /**
+     * called from the engine's thread when rows may have been added, removed or moved
+     */
+    synchronized void onChange() {
+        refresh = true;
+        updated.clear();
+        target.changed(lastRefresh + REFRESH_MS - System.currentTimeMillis());
+    }
+
+    /**
+     * applies the changes collected since it was last called, on the UI thread
+     */
+    private void apply() {
+        @NotNull final Map<List<Object>, Object> keys;
+        synchronized (this) {
+            keys = new LinkedHashMap<>(updated);
+            updated.clear();
+        }
+
+        if (!keys.isEmpty()) {
+            queryDelegate.onRowsUpdated();
+            if (!patch(keys))
+                onChange();
+        }
+
+        final long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (!refresh)
+                return;
+            if (now < lastRefresh + REFRESH_MS) {
+                target.changed(lastRefresh + REFRESH_MS - now);
+                return;
+            }
+            refresh = false;
+            lastRefresh = now;
+        }
+        // the key filter is kept up to date by the inserts reported
+        queryDelegate.onRowsMoved();
+        container.refresh();
+    }
+
+    /**
+     * @return {@code false} if a row could not be patched, and so the container must be refreshed
+     */
+    private boolean patch(@NotNull Map<List<Object>, Object> keys) {
+        // with buffered edits, setting a cell would add the row to those to be saved
+        if (!container.isAutoCommit())
+            return false;
+
+        for (@NotNull Map.Entry<List<Object>, Object> entry : keys.entrySet()) {
+            final List<Object> key = entry.getKey();
+            final RowItem item = (RowItem) container.getItemUnfiltered(new RowId(key.toArray()));
+            if (item == null)
+                continue;
+
+            Map<String, Object> values = queryDelegate.rowOf(key, entry.getValue());
+            if (values == null) {
+                try {
+                    values = queryDelegate.readRow(key);
+                } catch (UnsupportedFilterException e) {
+                    return false;
+                }
+            }
+            if (values == null || !queryDelegate.patch(item, values))
+                return false;
+            refreshRow(item.getId());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,78 @@
+package net.openhft.chronicle.engine.gui;
+
+import net.openhft.chronicle.engine.api.column.Column;
+import net.openhft.chronicle.engine.api.column.ColumnViewInternal;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * The columns of a view, read from the engine once and held until the tree reports a change to
+ * its topology, with the primary keys and the index of each column by name worked out up front,
+ * as on a remote tree each call to {@link ColumnViewInternal#columns()} is a round trip.
+ */
+final class Schema {
+
+    private static final Map<ColumnViewInternal, Schema> SCHEMAS = new WeakHashMap<>();
+
+    @NotNull
+    final List<Column> columns;
+    @NotNull
+    final List<String> primaryKeys;
+    @NotNull
+    private final Map<String, Integer> indexByName;
+
+    private Schema(@NotNull List<Column> columns) {
+        this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+
+        @NotNull final List<String> primaryKeys = new ArrayList<>();
+        @NotNull final Map<String, Integer> indexByName = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            final Column column = columns.get(i);
+            if (column.primaryKey)
+                primaryKeys.add(column.name);
+            indexByName.put(column.name, i);
+        }
+        this.primaryKeys = Collections.unmodifiableList(primaryKeys);
+        this.indexByName = indexByName;
+    }
+
+    /**
+     * @return the schema of {@code columnView}, reading it from the engine only if it is not held
+     */
+    @NotNull
+    static Schema of(@NotNull ColumnViewInternal columnView) {
+        synchronized (SCHEMAS) {
+            Schema schema = SCHEMAS.get(columnView);
+            if (schema == null)
+                SCHEMAS.put(columnView, schema = new Schema(columnView.columns()));
+            return schema;
+        }
+    }
+
+    /**
+     * drops the schema held for {@code columnView}, so that it is read again the next time it is used
+     */
+    static void invalidate(@NotNull ColumnViewInternal columnView) {
+        synchronized (SCHEMAS) {
+            SCHEMAS.remove(columnView);
+        }
+    }
+
+    /**
+     * @return {@code true} if this is still the schema held for {@code columnView}
+     */
+    boolean isCurrent(@NotNull ColumnViewInternal columnView) {
+        synchronized (SCHEMAS) {
+            return SCHEMAS.get(columnView) == this;
+        }
+    }
+
+    /**
+     * @return the index of the column {@code name}, or -1 if there is no such column
+     */
+    int indexOf(@NotNull String name) {
+        final Integer index = indexByName.get(name);
+        return index == null ? -1 : index;
+    }
+}
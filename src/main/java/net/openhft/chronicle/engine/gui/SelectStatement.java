@@ -0,0 +1,374 @@
+package net.openhft.chronicle.engine.gui;
+
+import com.vaadin.data.Container;
+import com.vaadin.data.util.filter.Between;
+import com.vaadin.data.util.filter.Compare;
+import com.vaadin.data.util.filter.Like;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLSyntaxErrorException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The subset of SQL the JDBC driver runs against a column view
+ * <pre>
+ * SELECT * | column [, column]* FROM /asset/path
+ *   [WHERE condition [AND condition]*]
+ *   [ORDER BY column [ASC | DESC] [, column [ASC | DESC]]*]
+ *   [LIMIT n] [OFFSET n]
+ * </pre>
+ * where a condition is {@code column = | < | > | <= | >= value}, {@code column BETWEEN value AND
+ * value} or {@code column LIKE 'pattern'}, and a value is a number, a quoted string, {@code TRUE},
+ * {@code FALSE} or a {@code ?} parameter. Each part is pushed down to the engine, WHERE as
+ * filters, ORDER BY as the sort order and OFFSET as the index to start from.
+ */
+final class SelectStatement {
+
+    /**
+     * the columns selected, or empty for all of them
+     */
+    @NotNull
+    final List<String> columns;
+    @NotNull
+    final String path;
+    @NotNull
+    final List<Condition> conditions;
+    @NotNull
+    final List<String> orderBy;
+    @NotNull
+    final List<Boolean> ascending;
+    @Nullable
+    private final Term limit;
+    @Nullable
+    private final Term offset;
+    final int parameterCount;
+
+    private SelectStatement(@NotNull Parser parser) {
+        this.columns = Collections.unmodifiableList(parser.columns);
+        this.path = parser.path;
+        this.conditions = Collections.unmodifiableList(parser.conditions);
+        this.orderBy = Collections.unmodifiableList(parser.orderBy);
+        this.ascending = Collections.unmodifiableList(parser.ascending);
+        this.limit = parser.limit;
+        this.offset = parser.offset;
+        this.parameterCount = parser.parameters;
+    }
+
+    @NotNull
+    static SelectStatement parse(@NotNull String sql) throws SQLException {
+        return new SelectStatement(new Parser(sql).parse());
+    }
+
+    /**
+     * @param columns    the name the view gives the column of each condition, as the names in
+     *                   the query are matched ignoring case
+     * @param parameters the values of the {@code ?} parameters, in order
+     * @return the WHERE clause as container filters
+     */
+    @NotNull
+    List<Container.Filter> filters(@NotNull List<String> columns, @NotNull Object[] parameters) throws SQLException {
+        @NotNull final List<Container.Filter> filters = new ArrayList<>(conditions.size());
+        for (int i = 0; i < conditions.size(); i++) {
+            filters.add(conditions.get(i).toFilter(columns.get(i), parameters));
+        }
+        return filters;
+    }
+
+    /**
+     * @return {@code true} if the WHERE clause has a {@code ?} parameter, and so can only be
+     * translated once they are bound
+     */
+    boolean filtersHaveParameters() {
+        for (@NotNull Condition condition : conditions) {
+            if (condition.value.isParameter() || condition.value2 != null && condition.value2.isParameter())
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the LIMIT, or {@link Integer#MAX_VALUE} if there is none
+     */
+    int limit(@NotNull Object[] parameters) throws SQLException {
+        return limit == null ? Integer.MAX_VALUE : limit.intValue(parameters);
+    }
+
+    int offset(@NotNull Object[] parameters) throws SQLException {
+        return offset == null ? 0 : offset.intValue(parameters);
+    }
+
+    /**
+     * a literal value, or a {@code ?} parameter
+     */
+    static final class Term {
+        @Nullable
+        private final Object value;
+        private final int parameter;
+
+        private Term(@Nullable Object value, int parameter) {
+            this.value = value;
+            this.parameter = parameter;
+        }
+
+        boolean isParameter() {
+            return parameter >= 0;
+        }
+
+        @Nullable
+        Object value(@NotNull Object[] parameters) throws SQLException {
+            if (parameter < 0)
+                return value;
+            if (parameter >= parameters.length || parameters[parameter] == null)
+                throw new SQLException("parameter " + (parameter + 1) + " is not set");
+            return parameters[parameter];
+        }
+
+        int intValue(@NotNull Object[] parameters) throws SQLException {
+            final Object value = value(parameters);
+            if (!(value instanceof Number) || ((Number) value).longValue() < 0)
+                throw new SQLException("expected a positive number, not " + value);
+            return (int) Math.min(((Number) value).longValue(), Integer.MAX_VALUE);
+        }
+    }
+
+    static final class Condition {
+        @NotNull
+        final String column;
+        @NotNull
+        private final String operator;
+        @NotNull
+        private final Term value;
+        @Nullable
+        private final Term value2;
+
+        private Condition(@NotNull String column, @NotNull String operator, @NotNull Term value, @Nullable Term value2) {
+            this.column = column;
+            this.operator = operator;
+            this.value = value;
+            this.value2 = value2;
+        }
+
+        /**
+         * @param column the name the view gives {@link #column}
+         */
+        @NotNull
+        Container.Filter toFilter(@NotNull String column, @NotNull Object[] parameters) throws SQLException {
+            final Object value = this.value.value(parameters);
+            switch (operator) {
+                case "=":
+                    return new Compare.Equal(column, value);
+                case "<":
+                    return new Compare.Less(column, value);
+                case ">":
+                    return new Compare.Greater(column, value);
+                case "<=":
+                    return new Compare.LessOrEqual(column, value);
+                case ">=":
+                    return new Compare.GreaterOrEqual(column, value);
+                case "BETWEEN":
+                    assert value2 != null;
+                    return new Between(column, comparable(value), comparable(value2.value(parameters)));
+                case "LIKE":
+                    return new Like(column, String.valueOf(value));
+                default:
+                    throw new SQLFeatureNotSupportedException(operator);
+            }
+        }
+
+        @NotNull
+        private static Comparable<?> comparable(Object value) throws SQLException {
+            if (value instanceof Comparable)
+                return (Comparable<?>) value;
+            throw new SQLException("can not compare " + value);
+        }
+    }
+
+    private static final class Parser {
+        @NotNull
+        private final String sql;
+        private int pos;
+
+        final List<String> columns = new ArrayList<>();
+        String path;
+        final List<Condition> conditions = new ArrayList<>();
+        final List<String> orderBy = new ArrayList<>();
+        final List<Boolean> ascending = new ArrayList<>();
+        Term limit;
+        Term offset;
+        int parameters;
+
+        Parser(@NotNull String sql) {
+            this.sql = sql;
+        }
+
+        @NotNull
+        Parser parse() throws SQLException {
+            expect("SELECT");
+            if (!accept("*")) {
+                do {
+                    columns.add(identifier());
+                } while (accept(","));
+            }
+
+            expect("FROM");
+            path = identifier();
+
+            if (accept("WHERE")) {
+                do {
+                    conditions.add(condition());
+                } while (accept("AND"));
+            }
+
+            if (accept("ORDER")) {
+                expect("BY");
+                do {
+                    orderBy.add(identifier());
+                    final boolean descending = accept("DESC");
+                    if (!descending)
+                        accept("ASC");
+                    ascending.add(!descending);
+                } while (accept(","));
+            }
+
+            if (accept("LIMIT"))
+                limit = term();
+            if (accept("OFFSET"))
+                offset = term();
+
+            accept(";");
+            if (peek() != null) {
+                final String token = peek();
+                if ("OR".equalsIgnoreCase(token) || "NOT".equalsIgnoreCase(token))
+                    throw new SQLFeatureNotSupportedException(token + " is not supported, only AND");
+                throw syntaxError("unexpected " + token);
+            }
+            return this;
+        }
+
+        @NotNull
+        private Condition condition() throws SQLException {
+            final String column = identifier();
+            final String token = next();
+            if (token == null)
+                throw syntaxError("expected an operator");
+
+            final String operator = token.toUpperCase(Locale.ROOT);
+            switch (operator) {
+                case "=":
+                case "<":
+                case ">":
+                case "<=":
+                case ">=":
+                case "LIKE":
+                    return new Condition(column, operator, term(), null);
+                case "BETWEEN":
+                    final Term from = term();
+                    expect("AND");
+                    return new Condition(column, operator, from, term());
+                default:
+                    throw new SQLFeatureNotSupportedException("the operator " + token + " is not supported");
+            }
+        }
+
+        @NotNull
+        private Term term() throws SQLException {
+            final String token = next();
+            if (token == null)
+                throw syntaxError("expected a value");
+            if ("?".equals(token))
+                return new Term(null, parameters++);
+            if (token.startsWith("'"))
+                return new Term(token.substring(1, token.length() - 1).replace("''", "'"), -1);
+            if ("TRUE".equalsIgnoreCase(token) || "FALSE".equalsIgnoreCase(token))
+                return new Term(Boolean.parseBoolean(token), -1);
+            try {
+                if (token.contains(".") || token.contains("e") || token.contains("E"))
+                    return new Term(Double.parseDouble(token), -1);
+                return new Term(Long.parseLong(token), -1);
+            } catch (NumberFormatException e) {
+                throw syntaxError("expected a value, not " + token);
+            }
+        }
+
+        @NotNull
+        private String identifier() throws SQLException {
+            final String token = next();
+            if (token == null || token.startsWith("'") || token.length() == 1 && !isWordChar(token.charAt(0)))
+                throw syntaxError("expected a name, not " + token);
+            return token.startsWith("\"") ? token.substring(1, token.length() - 1) : token;
+        }
+
+        private void expect(@NotNull String keyword) throws SQLException {
+            if (!accept(keyword))
+                throw syntaxError("expected " + keyword);
+        }
+
+        private boolean accept(@NotNull String keyword) throws SQLException {
+            if (!keyword.equalsIgnoreCase(peek()))
+                return false;
+            next();
+            return true;
+        }
+
+        @Nullable
+        private String peek() throws SQLException {
+            final int pos = this.pos;
+            final String token = next();
+            this.pos = pos;
+            return token;
+        }
+
+        @Nullable
+        private String next() throws SQLException {
+            while (pos < sql.length() && Character.isWhitespace(sql.charAt(pos)))
+                pos++;
+            if (pos >= sql.length())
+                return null;
+
+            final int start = pos;
+            final char c = sql.charAt(pos++);
+
+            if (c == '\'' || c == '"') {
+                while (pos < sql.length()) {
+                    if (sql.charAt(pos++) == c) {
+                        if (c == '\'' && pos < sql.length() && sql.charAt(pos) == '\'')
+                            pos++;
+                        else
+                            return sql.substring(start, pos);
+                    }
+                }
+                throw syntaxError("unterminated " + c);
+            }
+
+            if (c == '<' || c == '>' || c == '!') {
+                if (pos < sql.length() && (sql.charAt(pos) == '=' || c == '<' && sql.charAt(pos) == '>'))
+                    pos++;
+                return sql.substring(start, pos);
+            }
+
+            if (isWordChar(c) || c == '/' || c == '-' && pos < sql.length() && Character.isDigit(sql.charAt(pos))) {
+                while (pos < sql.length() && (isWordChar(sql.charAt(pos)) || sql.charAt(pos) == '/'
+                        || sql.charAt(pos) == '-' && c == '/'))
+                    pos++;
+                return sql.substring(start, pos);
+            }
+
+            return String.valueOf(c);
+        }
+
+        private static boolean isWordChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '_' || c == '.' || c == '$';
+        }
+
+        @NotNull
+        private SQLSyntaxErrorException syntaxError(@NotNull String message) {
+            return new SQLSyntaxErrorException(message + " at " + pos + " in: " + sql);
+        }
+    }
+}
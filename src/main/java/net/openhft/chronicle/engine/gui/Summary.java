@@ -0,0 +1,121 @@
+package net.openhft.chronicle.engine.gui;
+
+import com.vaadin.data.Item;
+import com.vaadin.data.util.IndexedContainer;
+import com.vaadin.server.Sizeable;
+import com.vaadin.ui.Grid;
+import com.vaadin.ui.UI;
+import com.vaadin.ui.Window;
+import net.openhft.chronicle.engine.api.column.Column;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.text.DecimalFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * shows the stats of the rows matching the grid's filters in a footer row under each column, and
+ * the stats of each group in a window of their own
+ */
+class Summary {
+
+    private static final String ROWS = "rows";
+
+    @NotNull
+    private final Grid grid;
+    @NotNull
+    private final DecimalFormat format = new DecimalFormat("#,##0.###");
+
+    @Nullable
+    private Grid.FooterRow footer;
+
+    Summary(@NotNull Grid grid) {
+        this.grid = grid;
+    }
+
+    void show(@NotNull Aggregates aggregates, @Nullable String groupBy) {
+        if (footer == null)
+            footer = grid.appendFooterRow();
+
+        final List<Column> columns = aggregates.columns();
+        @NotNull final Aggregates.Stats total = aggregates.total();
+        for (int i = 0; i < columns.size(); i++) {
+            final Grid.FooterCell cell = footer.getCell(columns.get(i).name);
+            if (cell != null)
+                cell.setText(describe(total, i));
+        }
+
+        if (groupBy != null)
+            showGroups(aggregates, groupBy);
+    }
+
+    /**
+     * blanks the footer, as the stats shown are no longer those of the rows in the grid
+     */
+    void clear() {
+        if (footer == null)
+            return;
+        for (@NotNull Grid.Column column : grid.getColumns()) {
+            final Grid.FooterCell cell = footer.getCell(column.getPropertyId());
+            if (cell != null)
+                cell.setText("");
+        }
+    }
+
+    @NotNull
+    private String describe(@NotNull Aggregates.Stats stats, int column) {
+        final Number sum = stats.sum(column);
+        if (sum == null) {
+            final Object min = stats.min(column);
+            return stats.count(column) + " values" + (min == null ? "" : ", " + min + " \u2026 " + stats.max(column));
+        }
+        final Double avg = stats.avg(column);
+        final Object min = stats.min(column);
+        // a column of more than one type of number has no min or max
+        return "\u03a3 " + format.format(sum)
+                + (avg == null ? "" : ", avg " + format.format(avg))
+                + (min == null ? "" : ", " + format.format(min) + " \u2026 " + format.format(stats.max(column)));
+    }
+
+    private void showGroups(@NotNull Aggregates aggregates, @NotNull String groupBy) {
+        final List<Column> columns = aggregates.columns();
+
+        @NotNull final IndexedContainer container = new IndexedContainer();
+        container.addContainerProperty(groupBy, String.class, null);
+        container.addContainerProperty(ROWS, Long.class, 0L);
+        for (int i = 0; i < columns.size(); i++) {
+            if (aggregates.total().sum(i) == null || columns.get(i).name.equals(groupBy))
+                continue;
+            container.addContainerProperty(columns.get(i).name + " sum", Double.class, null);
+            container.addContainerProperty(columns.get(i).name + " avg", Double.class, null);
+        }
+
+        for (@NotNull Map.Entry<Object, Aggregates.Stats> entry : aggregates.groups().entrySet()) {
+            final Item item = container.getItem(container.addItem());
+            @NotNull final Aggregates.Stats stats = entry.getValue();
+            item.getItemProperty(groupBy).setValue(String.valueOf(entry.getKey()));
+            item.getItemProperty(ROWS).setValue(stats.rows());
+            for (int i = 0; i < columns.size(); i++) {
+                if (item.getItemProperty(columns.get(i).name + " sum") == null)
+                    continue;
+                final Number sum = stats.sum(i);
+                item.getItemProperty(columns.get(i).name + " sum").setValue(sum == null ? null : sum.doubleValue());
+                item.getItemProperty(columns.get(i).name + " avg").setValue(stats.avg(i));
+            }
+        }
+
+        @NotNull final Grid groups = new Grid(container);
+        groups.setSizeFull();
+
+        @NotNull final Window window = new Window("By " + groupBy + (aggregates.isTruncated()
+                ? " (first " + Aggregates.MAX_GROUPS + " groups)"
+                : ""));
+        window.setModal(false);
+        window.setWidth(600, Sizeable.Unit.PIXELS);
+        window.setHeight(400, Sizeable.Unit.PIXELS);
+        window.setContent(groups);
+        window.center();
+        UI.getCurrent().addWindow(window);
+    }
+}
@@ -0,0 +1,88 @@
+package net.openhft.chronicle.engine.gui;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.engine.api.column.ClosableIterator;
+import net.openhft.chronicle.engine.api.column.ColumnViewInternal;
+import net.openhft.chronicle.engine.api.column.Row;
+import org.jetbrains.annotations.NotNull;
+
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.openhft.chronicle.engine.api.column.ColumnViewInternal.SortedFilter;
+
+/**
+ * An engine iterator which is counted while it is open, so that iterators which are never closed
+ * show up as a count which only grows. The count is published over JMX as {@code
+ * net.openhft.chronicle.engine.gui:type=OpenIterators}.
+ * <p>
+ * The iterator closes itself once it has been read to the end.
+ */
+final class TrackedIterator implements ClosableIterator<Row> {
+
+    private static final AtomicInteger OPEN = new AtomicInteger();
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(
+                    new StandardMBean((OpenIteratorsMXBean) OPEN::get, OpenIteratorsMXBean.class, true),
+                    new ObjectName("net.openhft.chronicle.engine.gui:type=OpenIterators"));
+        } catch (Exception e) {
+            Jvm.warn().on(TrackedIterator.class, "unable to register the open iterator count", e);
+        }
+    }
+
+    public interface OpenIteratorsMXBean {
+        int getOpen();
+    }
+
+    @NotNull
+    private final ClosableIterator<? extends Row> iterator;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private TrackedIterator(@NotNull ClosableIterator<? extends Row> iterator) {
+        this.iterator = iterator;
+        OPEN.incrementAndGet();
+    }
+
+    /**
+     * @return a counted iterator over the rows of {@code columnView} selected by {@code filter}
+     */
+    @NotNull
+    static ClosableIterator<Row> open(@NotNull ColumnViewInternal columnView, @NotNull SortedFilter filter) {
+        return new TrackedIterator(columnView.iterator(filter));
+    }
+
+    /**
+     * @return the number of engine iterators opened and not yet closed
+     */
+    static int openCount() {
+        return OPEN.get();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed.get())
+            return false;
+        if (iterator.hasNext())
+            return true;
+        close();
+        return false;
+    }
+
+    @Override
+    public Row next() {
+        return iterator.next();
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            OPEN.decrementAndGet();
+            iterator.close();
+        }
+    }
+}
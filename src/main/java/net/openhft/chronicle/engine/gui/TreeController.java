@@ -19,6 +19,8 @@ import net.openhft.chronicle.threads.NamedThreadFactory;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -39,6 +41,11 @@ class TreeController {
     final ItemClickEvent.ItemClickListener clickListener;
     @NotNull
     private final ChartUI histogramUI = new ChartUI();
+    /**
+     * the paths of the assets reported, guarded by this
+     */
+    @NotNull
+    private final Set<String> paths = new HashSet<>();
     @NotNull
     static ExecutorService executorService = Executors.newSingleThreadExecutor(new NamedThreadFactory
             ("scheduler", true));
@@ -79,7 +86,8 @@ class TreeController {
                 @NotNull
                 ColumnViewController mapControl = new ColumnViewController(view,
                         mapViewUI,
-                        path(source));
+                        path(source),
+                        remoteTree);
                 mapControl.init();
 
             }
@@ -109,6 +117,12 @@ class TreeController {
 
     private void updateTree(@NotNull Tree tree, @NotNull TopologicalEvent e, @NotNull AssetTree assetTree) {
 
+        // an asset added or removed may bring a view with other columns under its path, the first
+        // event of each path being the replay of those already there as the subscription starts
+        final String path = e.fullName();
+        if (path != null && !firstReported(path))
+            invalidateSchemas(assetTree, path);
+
         if (e.assetName() == null)
             return;
 
@@ -149,6 +163,26 @@ class TreeController {
         }
     }
 
+    private synchronized boolean firstReported(@NotNull String path) {
+        return paths.add(path);
+    }
+
+    /**
+     * drops the schemas held of the column views of the asset at {@code path}, which the schemas
+     * of every session share, leaving those of other assets
+     */
+    private static void invalidateSchemas(@NotNull AssetTree assetTree, @NotNull String path) {
+        final Asset asset = assetTree.getAsset(path);
+        if (asset == null)
+            return;
+        for (@NotNull Class<? extends ColumnViewInternal> type : Arrays.asList(MapColumnView.class,
+                QueueColumnView.class)) {
+            final ColumnViewInternal columnView = asset.getView(type);
+            if (columnView != null)
+                Schema.invalidate(columnView);
+        }
+    }
+
     private void addBarChart(@NotNull final Tree tree, @NotNull TopologicalEvent e, @NotNull AssetTree
             assetTree) {
         tree.addItem(e.fullName() + BAR_CHART_VIEW);
@@ -6,18 +6,26 @@ import com.vaadin.addon.charts.model.style.SolidColor;
 import com.vaadin.server.Sizeable;
 import com.vaadin.ui.Component;
 import com.vaadin.ui.UI;
+import net.openhft.chronicle.threads.NamedThreadFactory;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Random;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * @author Rob Austin.
  */
 class UserControl {
 
+    @NotNull
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+            new NamedThreadFactory("user-charts", true));
 
     @NotNull
     Component newComponent() {
@@ -93,7 +101,7 @@ class UserControl {
 
 
     /**
-     * Runs given task repeatedly until the reference component is attached
+     * Runs given task repeatedly while the reference component is attached, pushing its changes
      *
      * @param component
      * @param task
@@ -104,32 +112,23 @@ class UserControl {
                                          final Runnable task,
                                          final int interval,
                                          final int initialPause) {
-        // Until reliable push available in our demo servers
-        UI.getCurrent().setPollInterval(interval);
-
-        @NotNull final Thread thread = new Thread() {
-            @Override
-            public void run() {
-                try {
-                    Thread.sleep(initialPause);
-                    while (component.getUI() != null) {
-                        Future<Void> future = component.getUI().access(task);
-                        future.get();
-                        Thread.sleep(interval);
-                    }
-                } catch (@NotNull InterruptedException | com.vaadin.ui.UIDetachedException e) {
-                } catch (ExecutionException e) {
-                    System.out.println("Stopping repeating command due to an exception");
-
-                } catch (Exception e) {
-                    System.out.println("Unexpected exception while running scheduled update");
-                }
-                System.out.println("Thread stopped");
-            }
-
-            ;
-        };
-        thread.start();
+        @NotNull final AtomicReference<ScheduledFuture<?>> running = new AtomicReference<>();
+
+        component.addAttachListener(event -> {
+            final UI ui = component.getUI();
+            final ScheduledFuture<?> future = SCHEDULER.scheduleWithFixedDelay(
+                    // throwing UIDetachedException, once the UI has gone, stops the task
+                    () -> ui.access(task), initialPause, interval, MILLISECONDS);
+            final ScheduledFuture<?> previous = running.getAndSet(future);
+            if (previous != null)
+                previous.cancel(false);
+        });
+
+        component.addDetachListener(event -> {
+            final ScheduledFuture<?> future = running.getAndSet(null);
+            if (future != null)
+                future.cancel(false);
+        });
     }
 
 
@@ -0,0 +1,90 @@
+package net.openhft.chronicle.engine.gui;
+
+import net.openhft.chronicle.engine.api.column.ClosableIterator;
+import net.openhft.chronicle.engine.api.column.Column;
+import net.openhft.chronicle.engine.api.column.ColumnViewInternal;
+import net.openhft.chronicle.engine.api.column.Row;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+import static net.openhft.chronicle.engine.api.column.ColumnViewInternal.SortedFilter;
+
+/**
+ * reads the pages of a query straight from the engine, keeping the iterator open between pages so
+ * that reading the pages in order runs a single query on the engine
+ */
+final class ViewPager implements ChronicleColumnViewResultSet.Pager {
+
+    @NotNull
+    private final ColumnViewInternal columnView;
+    @NotNull
+    private final SortedFilter filter;
+    @NotNull
+    private final List<Column> columns;
+    @NotNull
+    private final int[] source;
+    private final int pageRows;
+
+    @Nullable
+    private ClosableIterator<Row> iterator;
+    private int nextPage = -1;
+
+    /**
+     * @param filter  the filters and sort order of the query, its {@code fromIndex} is set for
+     *                each page
+     * @param columns the columns read
+     * @param source  the index in the view's rows of each of {@code columns}
+     */
+    ViewPager(@NotNull ColumnViewInternal columnView,
+              @NotNull SortedFilter filter,
+              @NotNull List<Column> columns,
+              @NotNull int[] source,
+              int pageRows) {
+        this.columnView = columnView;
+        this.filter = filter;
+        this.columns = columns;
+        this.source = source;
+        this.pageRows = pageRows;
+    }
+
+    @NotNull
+    List<Column> columns() {
+        return columns;
+    }
+
+    /**
+     * @return the background tasks of the view read
+     */
+    @NotNull
+    BackgroundTasks tasks() {
+        return BackgroundTasks.of(columnView);
+    }
+
+    @NotNull
+    @Override
+    public PageBuffer page(int page) {
+        if (iterator == null || page != nextPage) {
+            close();
+            filter.fromIndex = (long) page * pageRows;
+            iterator = TrackedIterator.open(columnView, filter);
+        }
+
+        @NotNull final PageBuffer.Builder builder = PageBuffer.builder(columns, source, pageRows);
+        while (!builder.isFull() && iterator.hasNext()) {
+            builder.add(iterator.next());
+        }
+
+        nextPage = page + 1;
+        return builder.build();
+    }
+
+    @Override
+    public void close() {
+        if (iterator != null) {
+            iterator.close();
+            iterator = null;
+        }
+    }
+}